@@ -0,0 +1,68 @@
+package result;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encoding and decoding a large batch of validation results with {@link ResultCodec},
+ * comparing decoding every result against counting and reading single values through a {@link ResultView}.
+ * Run with the GC profiler to see the difference in allocation.
+ *
+ * @author Alan Teesdale
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryBenchmark {
+    @Param({"100000"})
+    public int size;
+
+    private final ResultCodec<Integer, String> codec = ResultCodec.of(BinaryCodec.INT, BinaryCodec.STRING);
+    private List<Result<Integer, String>> results;
+    private ByteBuffer out;
+    private ByteBuffer in;
+
+    @Setup
+    public void setup() {
+        results = IntStream.range(0, size)
+                .mapToObj(i -> i % 10 == 0 ? Result.<Integer, String>err("invalid " + i) : Result.<Integer, String>ok(i))
+                .toList();
+        out = ByteBuffer.allocateDirect(codec.sizeOfAll(results));
+        codec.writeAll(results, out);
+        in = out.duplicate().flip();
+    }
+
+    @Benchmark
+    public ByteBuffer writeAll() {
+        codec.writeAll(results, out.clear());
+        return out;
+    }
+
+    @Benchmark
+    public List<Result<Integer, String>> readAll() {
+        return codec.readAll(in.rewind());
+    }
+
+    @Benchmark
+    public int viewOkCount() {
+        return codec.view(in.rewind()).okCount();
+    }
+
+    @Benchmark
+    public String viewFirstError() {
+        ResultView<Integer, String> view = codec.view(in.rewind());
+        for (int i = 0; i < view.size(); i++) {
+            if (!view.isOk(i)) {
+                return view.getError(i);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,72 @@
+package result;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Maps exceptions to responses with a chain of {@link Result#flatMapMatchingError} calls
+ * compared against an {@link ErrorRouter} built from the same routes.
+ * The error matches the last route, so the chain tests every predicate.
+ *
+ * @author Alan Teesdale
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorRouterBenchmark {
+    private static final List<Class<? extends Throwable>> TYPES = List.of(
+            NoSuchElementException.class,
+            // before IllegalStateException, its superclass, or the route could never match
+            CancellationException.class,
+            IllegalStateException.class,
+            UnsupportedOperationException.class,
+            ArithmeticException.class,
+            ClassCastException.class,
+            IndexOutOfBoundsException.class,
+            NullPointerException.class,
+            ConcurrentModificationException.class,
+            UncheckedIOException.class,
+            TimeoutException.class,
+            IOException.class
+    );
+
+    private Result<String, Throwable> result;
+    private ErrorRouter<String, Throwable> router;
+
+    @Setup
+    public void setup() {
+        result = Result.err(new IOException("disk"));
+        ErrorRouter.Builder<String, Throwable> builder = ErrorRouter.builder();
+        for (Class<? extends Throwable> type : TYPES) {
+            String response = type.getSimpleName();
+            builder.recover(type, e -> response);
+        }
+        router = builder.build();
+    }
+
+    @Benchmark
+    public Result<String, Throwable> chain() {
+        Result<String, Throwable> routed = result;
+        for (Class<? extends Throwable> type : TYPES) {
+            String response = type.getSimpleName();
+            routed = routed.flatMapMatchingError(type::isInstance, e -> Result.ok(response));
+        }
+        return routed;
+    }
+
+    @Benchmark
+    public Result<String, Throwable> router() {
+        return router.route(result);
+    }
+}
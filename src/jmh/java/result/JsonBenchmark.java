@@ -0,0 +1,95 @@
+package result;
+
+import com.alibaba.fastjson2.JSON;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the Jackson, Gson and fastjson result codecs on an API response holding a list of results,
+ * and against the old workaround of converting each result to a map first.
+ *
+ * @author Alan Teesdale
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private static final TypeReference<List<Result<Integer, String>>> JACKSON_TYPE = new TypeReference<>() {};
+    private static final Type GSON_TYPE = new TypeToken<List<Result<Integer, String>>>() {}.getType();
+    private static final com.alibaba.fastjson2.TypeReference<List<Result<Integer, String>>> FASTJSON_TYPE =
+            new com.alibaba.fastjson2.TypeReference<>() {};
+
+    @Param({"1000"})
+    public int size;
+
+    private List<Result<Integer, String>> results;
+    private String json;
+    private ObjectMapper jackson;
+    private ObjectMapper plainJackson;
+    private Gson gson;
+
+    @Setup
+    public void setup() throws Exception {
+        results = IntStream.range(0, size)
+                .mapToObj(i -> i % 10 == 0 ? Result.<Integer, String>err("error " + i) : Result.<Integer, String>ok(i))
+                .toList();
+        jackson = new ObjectMapper().registerModule(new ResultJacksonModule());
+        plainJackson = new ObjectMapper();
+        gson = new GsonBuilder().registerTypeAdapterFactory(new ResultGsonAdapterFactory()).create();
+        ResultFastjsonModule.register();
+        json = jackson.writeValueAsString(results);
+    }
+
+    @Benchmark
+    public String jacksonWrite() throws Exception {
+        return jackson.writeValueAsString(results);
+    }
+
+    @Benchmark
+    public List<Result<Integer, String>> jacksonRead() throws Exception {
+        return jackson.readValue(json, JACKSON_TYPE);
+    }
+
+    @Benchmark
+    public String gsonWrite() {
+        return gson.toJson(results, GSON_TYPE);
+    }
+
+    @Benchmark
+    public List<Result<Integer, String>> gsonRead() {
+        return gson.fromJson(json, GSON_TYPE);
+    }
+
+    @Benchmark
+    public String fastjsonWrite() {
+        return JSON.toJSONString(results);
+    }
+
+    @Benchmark
+    public List<Result<Integer, String>> fastjsonRead() {
+        return JSON.parseObject(json, FASTJSON_TYPE);
+    }
+
+    /**
+     * The workaround the codecs replace, each result becomes a map before it is written.
+     */
+    @Benchmark
+    public String mapWorkaroundWrite() throws Exception {
+        return plainJackson.writeValueAsString(results.stream()
+                .map(r -> r.isOk() ? Map.of("ok", r.get()) : Map.of("err", r.getError()))
+                .toList());
+    }
+}
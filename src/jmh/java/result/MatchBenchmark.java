@@ -0,0 +1,80 @@
+package result;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the varargs {@link Result#match(Result, java.util.function.Function, MatchArm[])} family
+ * against the {@link java.util.Collection} based instance methods and a precompiled {@link MatchTable},
+ * for both match overloads.
+ * The matching arm is always the last one, so every arm is visited.
+ *
+ * @author Alan Teesdale
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchBenchmark {
+    @Param({"OK", "ERR"})
+    public String variant;
+
+    @Param({"4", "60"})
+    public int arms;
+
+    private Result<Integer, Integer> result;
+    private MatchArm<Integer, Integer, String>[] armArray;
+    private List<MatchArm<Integer, Integer, String>> armList;
+    private MatchTable<Integer, Integer, String> table;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() {
+        int last = arms / 2 - 1;
+        result = variant.equals("OK") ? Result.ok(last) : Result.err(last);
+
+        armList = new ArrayList<>();
+        for (int i = 0; i < arms / 2; i++) {
+            int key = i;
+            armList.add(MatchArm.okay(key, v -> "ok " + key));
+            armList.add(MatchArm.error(key, e -> "err " + key));
+        }
+        armArray = armList.toArray(MatchArm[]::new);
+        table = MatchTable.of(armList);
+    }
+
+    @Benchmark
+    public String varargsDefaultArm() {
+        return Result.match(result, r -> "default", armArray);
+    }
+
+    @Benchmark
+    public String collectionDefaultArm() {
+        return result.match(r -> "default", armList);
+    }
+
+    @Benchmark
+    public String varargsOkErrDefaults() {
+        return Result.match(result, v -> "ok", e -> "err", armArray);
+    }
+
+    @Benchmark
+    public String collectionOkErrDefaults() {
+        return result.match(v -> "ok", e -> "err", armList);
+    }
+
+    @Benchmark
+    public String tableDefaultArm() {
+        return table.match(result, r -> "default");
+    }
+
+    @Benchmark
+    public String tableOkErrDefaults() {
+        return table.match(result, v -> "ok", e -> "err");
+    }
+}
@@ -0,0 +1,78 @@
+package result;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Matching a {@code Result<String, Throwable>} on the exception's class, with {@code instanceof} predicate arms
+ * compared against {@link MatchArm#errType} arms in a {@link MatchTable}.
+ * The error is a subclass of the last arm's type, so every predicate is tested.
+ *
+ * @author Alan Teesdale
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchTypeBenchmark {
+    private static final List<Class<? extends Throwable>> TYPES = List.of(
+            NoSuchElementException.class,
+            CancellationException.class,
+            IllegalStateException.class,
+            UnsupportedOperationException.class,
+            ArithmeticException.class,
+            ClassCastException.class,
+            IndexOutOfBoundsException.class,
+            NullPointerException.class,
+            ConcurrentModificationException.class,
+            UncheckedIOException.class,
+            TimeoutException.class,
+            IOException.class
+    );
+
+    private Result<String, Throwable> result;
+    private List<MatchArm<String, Throwable, String>> predicateArms;
+    private MatchTable<String, Throwable, String> predicateTable;
+    private MatchTable<String, Throwable, String> typeTable;
+
+    @Setup
+    public void setup() {
+        result = Result.err(new FileNotFoundException("config"));
+        predicateArms = new ArrayList<>();
+        List<MatchArm<String, Throwable, String>> typeArms = new ArrayList<>();
+        for (Class<? extends Throwable> type : TYPES) {
+            String name = type.getSimpleName();
+            predicateArms.add(MatchArm.err(type::isInstance, e -> name));
+            typeArms.add(MatchArm.errType(type, e -> name));
+        }
+        predicateTable = MatchTable.of(predicateArms);
+        typeTable = MatchTable.of(typeArms);
+    }
+
+    @Benchmark
+    public String predicateArms() {
+        return result.match(r -> "default", predicateArms);
+    }
+
+    @Benchmark
+    public String predicateTable() {
+        return predicateTable.match(result, r -> "default");
+    }
+
+    @Benchmark
+    public String typeTable() {
+        return typeTable.match(result, r -> "default");
+    }
+}
@@ -0,0 +1,213 @@
+package result;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation benchmarks for every method on {@link Result}.
+ * Each benchmark runs once against the Ok variant and once against the Err variant.
+ *
+ * @author Alan Teesdale
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultBenchmark {
+    @Param({"OK", "ERR"})
+    public String variant;
+
+    private Integer value;
+    private String error;
+    private Result<Integer, String> result;
+    private Result<Integer, String> other;
+    private ResultPipeline<Integer, Integer, String> pipeline;
+    private CircuitBreaker breaker;
+
+    @Setup
+    public void setup() {
+        value = 1234;
+        error = "error";
+        result = variant.equals("OK") ? Result.ok(value) : Result.err(error);
+        other = Result.ok(42);
+        pipeline = Result.<Integer, String>lazy()
+                .map(v -> v + 1)
+                .filter(v -> v > 0, v -> error)
+                .map(v -> v * 2)
+                .flatMap(v -> isOkVariant() ? Result.ok(v) : Result.err(error))
+                .map(v -> v - 1)
+                .mapError(e -> e + "!");
+        // Closed for the Ok variant, tripped open by the first failure for the Err variant
+        breaker = CircuitBreaker.of(10, 0.5, 1, Duration.ofHours(1));
+        breaker.call(this::supply);
+    }
+
+    private boolean isOkVariant() {
+        return variant.equals("OK");
+    }
+
+    private Integer supply() throws Exception {
+        if (isOkVariant()) {
+            return value;
+        }
+        throw new IllegalStateException(error);
+    }
+
+    private void run() throws Exception {
+        if (!isOkVariant()) {
+            throw new IllegalStateException(error);
+        }
+    }
+
+    @Benchmark
+    public Result<Integer, Throwable> fromFunctionSupplier() {
+        return Result.fromFunction(this::supply);
+    }
+
+    @Benchmark
+    public Result<Integer, Throwable> circuitBreakerCall() {
+        return breaker.call(this::supply);
+    }
+
+    @Benchmark
+    public Result<Void, Throwable> fromFunctionRunnable() {
+        return Result.fromFunction(this::run);
+    }
+
+    @Benchmark
+    public Result<Integer, String> construct() {
+        return isOkVariant() ? Result.ok(value) : Result.err(error);
+    }
+
+    @Benchmark
+    public Object get() {
+        try {
+            return result.get();
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object getError() {
+        try {
+            return result.getError();
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public boolean isOk() {
+        return result.isOk();
+    }
+
+    @Benchmark
+    public boolean hasError() {
+        return result.hasError();
+    }
+
+    @Benchmark
+    public void ifOk(Blackhole bh) {
+        result.ifOk(bh::consume);
+    }
+
+    @Benchmark
+    public void ifOkOrElse(Blackhole bh) {
+        result.ifOkOrElse(bh::consume, () -> bh.consume(error));
+    }
+
+    @Benchmark
+    public Result<Integer, String> map() {
+        return result.map(v -> v + 1);
+    }
+
+    @Benchmark
+    public Result<Integer, String> flatMap() {
+        return result.flatMap(v -> other);
+    }
+
+    @Benchmark
+    public Result<Integer, Integer> mapError() {
+        return result.mapError(String::length);
+    }
+
+    @Benchmark
+    public Result<Integer, Integer> flatMapError() {
+        return result.flatMapError(e -> Result.err(e.length()));
+    }
+
+    @Benchmark
+    public Result<Integer, String> transformMatchingError() {
+        return result.transformMatchingError(e -> e.isEmpty(), String::length);
+    }
+
+    @Benchmark
+    public Result<Integer, String> flatMapMatchingError() {
+        return result.flatMapMatchingError(e -> e.isEmpty(), e -> other);
+    }
+
+    @Benchmark
+    public Result<Integer, String> or() {
+        return result.or(() -> other);
+    }
+
+    @Benchmark
+    public Object toOptional() {
+        return result.toOptional();
+    }
+
+    @Benchmark
+    public Integer orElse() {
+        return result.orElse(0);
+    }
+
+    @Benchmark
+    public Integer orElseGet() {
+        return result.orElseGet(String::length);
+    }
+
+    @Benchmark
+    public Result<Integer, String> filter() {
+        return result.filter(v -> v > 0, v -> error);
+    }
+
+    @Benchmark
+    public Object orElseThrowSupplier() {
+        try {
+            return result.orElseThrow(() -> new IllegalStateException(error));
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object orElseThrowFunction() {
+        try {
+            return result.<IllegalStateException>orElseThrow(e -> new IllegalStateException(e));
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Result<Integer, String> chained() {
+        return Result.<Integer, String>ok(value)
+                .map(v -> v + 1)
+                .filter(v -> v > 0, v -> error)
+                .map(v -> v * 2)
+                .flatMap(v -> isOkVariant() ? Result.ok(v) : Result.err(error))
+                .map(v -> v - 1)
+                .mapError(e -> e + "!");
+    }
+
+    @Benchmark
+    public Result<Integer, String> fusedPipeline() {
+        return pipeline.apply(value);
+    }
+}
@@ -0,0 +1,168 @@
+package result;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A result which will be available in the future, backed by a {@link CompletableFuture}.
+ * Every combinator returns immediately, and is applied to the result once it completes,
+ * so chaining never blocks the calling thread.
+ * If a mapper throws, the underlying future completes exceptionally, as it would for a {@link CompletableFuture}.
+ *
+ * @param <T> The type of the value.
+ * @param <E> The type of the error.
+ *
+ * @author Alan Teesdale
+ */
+public final class AsyncResult<T, E> {
+    private final CompletableFuture<Result<T, E>> future;
+
+    private AsyncResult(CompletableFuture<Result<T, E>> future) {
+        this.future = future;
+    }
+
+    /**
+     * Wrap a future holding a result.
+     *
+     * @param future The future to wrap.
+     *
+     * @return An async result which completes when the future does.
+     */
+    public static <T, E> AsyncResult<T, E> of(CompletionStage<Result<T, E>> future) {
+        return new AsyncResult<>(Objects.requireNonNull(future).toCompletableFuture());
+    }
+
+    /**
+     * Wrap a result which is already available.
+     *
+     * @param result The result.
+     *
+     * @return An async result which has already completed with the result.
+     */
+    public static <T, E> AsyncResult<T, E> completed(Result<T, E> result) {
+        return new AsyncResult<>(CompletableFuture.completedFuture(Objects.requireNonNull(result)));
+    }
+
+    /**
+     * Run the function on the executor, capturing its value or the error it throws,
+     * see {@link Result#fromFunction(FallibleSupplier)}.
+     *
+     * @param function The function to run.
+     * @param executor The executor to run the function on.
+     * @param <T> The return type of the function.
+     *
+     * @return An async result which completes when the function does.
+     */
+    public static <T> AsyncResult<T, Throwable> fromFunction(FallibleSupplier<T> function, Executor executor) {
+        Objects.requireNonNull(function);
+        return new AsyncResult<>(CompletableFuture.supplyAsync(() -> Result.fromFunction(function), executor));
+    }
+
+    /**
+     * See {@link Result#map(Function)}.
+     *
+     * @param mapper map the value of the result to a different one if it exists
+     * @param <U>    the type to map to
+     *
+     * @return An async result containing the mapped value.
+     */
+    public <U> AsyncResult<U, E> map(Function<? super T, ? extends U> mapper) {
+        Objects.requireNonNull(mapper);
+        return new AsyncResult<>(future.thenApply(r -> r.map(mapper)));
+    }
+
+    /**
+     * See {@link Result#flatMap(Function)}.
+     *
+     * @param mapper the function that maps the value to the new result
+     * @param <U>    The new type of the result
+     *
+     * @return An async result containing the result given by the mapper.
+     */
+    public <U> AsyncResult<U, E> flatMap(Function<? super T, ? extends Result<? extends U, ? extends E>> mapper) {
+        Objects.requireNonNull(mapper);
+        return new AsyncResult<>(future.thenApply(r -> r.flatMap(mapper)));
+    }
+
+    /**
+     * Like {@link #flatMap(Function)}, but the mapper returns another async result,
+     * which is chained on without waiting for it.
+     *
+     * @param mapper the function that maps the value to the new async result
+     * @param <U>    The new type of the result
+     *
+     * @return An async result which completes when the result given by the mapper does.
+     */
+    @SuppressWarnings("unchecked")
+    public <U> AsyncResult<U, E> flatMapAsync(Function<? super T, ? extends AsyncResult<? extends U, ? extends E>> mapper) {
+        Objects.requireNonNull(mapper);
+        return new AsyncResult<>(future.thenCompose(r -> r.isOk()
+                ? ((AsyncResult<U, E>) mapper.apply(r.get())).future
+                : CompletableFuture.completedFuture((Result<U, E>) r)
+        ));
+    }
+
+    /**
+     * See {@link Result#mapError(Function)}.
+     *
+     * @param mapper A function that takes the error to a different error type.
+     * @param <U>    The new error type.
+     *
+     * @return An async result which has the Err variant mapped to a different error.
+     */
+    public <U> AsyncResult<T, U> mapError(Function<? super E, ? extends U> mapper) {
+        Objects.requireNonNull(mapper);
+        return new AsyncResult<>(future.thenApply(r -> r.mapError(mapper)));
+    }
+
+    /**
+     * See {@link Result#or(Supplier)}.
+     *
+     * @param supplier A supplier of a result, which gets run if this is of the Err variant.
+     *
+     * @return An async result holding this result if it's Ok, otherwise the result given by the supplier.
+     */
+    public AsyncResult<T, E> or(Supplier<? extends Result<? extends T, ? extends E>> supplier) {
+        Objects.requireNonNull(supplier);
+        return new AsyncResult<>(future.thenApply(r -> r.or(supplier)));
+    }
+
+    /**
+     * Apply the function matching the variant of the result once it is available.
+     *
+     * @param okArm  The function to apply to the value.
+     * @param errArm The function to apply to the error.
+     * @param <U>    the return type
+     *
+     * @return A future of the value given by one of the arms.
+     */
+    public <U> CompletableFuture<U> match(Function<? super T, ? extends U> okArm, Function<? super E, ? extends U> errArm) {
+        Objects.requireNonNull(okArm);
+        Objects.requireNonNull(errArm);
+        return future.thenApply(r -> r.isOk() ? okArm.apply(r.get()) : errArm.apply(r.getError()));
+    }
+
+    /**
+     * Wait for the result, blocking the calling thread.
+     *
+     * @return The result once it is available.
+     *
+     * @throws java.util.concurrent.CompletionException if the result could not be computed.
+     */
+    public Result<T, E> join() {
+        return future.join();
+    }
+
+    /**
+     * Get the future backing this result.
+     *
+     * @return A future of the result.
+     */
+    public CompletableFuture<Result<T, E>> toCompletableFuture() {
+        return future;
+    }
+}
@@ -0,0 +1,135 @@
+package result;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes the values inside a result for {@link ResultCodec}.
+ * The codec writes the bare payload, the length prefix is written (and checked) by the result codec.
+ *
+ * @param <V> The type of value this encodes.
+ *
+ * @author Alan Teesdale
+ */
+public interface BinaryCodec<V> {
+    /**
+     * A 4 byte int.
+     */
+    BinaryCodec<Integer> INT = new BinaryCodec<>() {
+        @Override
+        public int sizeOf(Integer value) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(Integer value, ByteBuffer out) {
+            out.putInt(value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer in, int offset, int length) {
+            return in.getInt(offset);
+        }
+    };
+
+    /**
+     * An 8 byte long.
+     */
+    BinaryCodec<Long> LONG = new BinaryCodec<>() {
+        @Override
+        public int sizeOf(Long value) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long value, ByteBuffer out) {
+            out.putLong(value);
+        }
+
+        @Override
+        public Long read(ByteBuffer in, int offset, int length) {
+            return in.getLong(offset);
+        }
+    };
+
+    /**
+     * An 8 byte double.
+     */
+    BinaryCodec<Double> DOUBLE = new BinaryCodec<>() {
+        @Override
+        public int sizeOf(Double value) {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(Double value, ByteBuffer out) {
+            out.putDouble(value);
+        }
+
+        @Override
+        public Double read(ByteBuffer in, int offset, int length) {
+            return in.getDouble(offset);
+        }
+    };
+
+    /**
+     * A UTF-8 string, read straight from the backing array when there is one.
+     */
+    BinaryCodec<String> STRING = new BinaryCodec<>() {
+        @Override
+        public int sizeOf(String value) {
+            int size = value.length();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 0x800) {
+                    // Three bytes, or four for a surrogate pair which is already counted as two chars
+                    size += Character.isSurrogate(c) ? 1 : 2;
+                } else if (c >= 0x80) {
+                    size += 1;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public void write(String value, ByteBuffer out) {
+            out.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String read(ByteBuffer in, int offset, int length) {
+            if (in.hasArray()) {
+                return new String(in.array(), in.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+            }
+            byte[] bytes = new byte[length];
+            in.get(offset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * @param value The value to encode.
+     *
+     * @return The number of bytes {@link #write} will write for the value.
+     */
+    int sizeOf(V value);
+
+    /**
+     * Write the value at the buffer's position, advancing it.
+     *
+     * @param value The value to encode.
+     * @param out   The buffer to write to.
+     */
+    void write(V value, ByteBuffer out);
+
+    /**
+     * Read a value without moving the buffer's position.
+     *
+     * @param in     The buffer to read from.
+     * @param offset The absolute index of the payload.
+     * @param length The length of the payload in bytes.
+     *
+     * @return The decoded value.
+     */
+    V read(ByteBuffer in, int offset, int length);
+}
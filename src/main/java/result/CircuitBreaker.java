@@ -0,0 +1,180 @@
+package result;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stops calling a failing supplier, like {@link Result#fromFunction(FallibleSupplier)} but with a fuse.
+ * The outcomes of the last {@code windowSize} calls are kept, and once at least {@code minimumCalls}
+ * have been recorded and the share of failures reaches {@code failureRateThreshold} the breaker opens.
+ * While open every call returns the same preallocated Err holding a {@link CircuitOpenException},
+ * without running the supplier.
+ * After {@code openDuration} the next call is let through as a probe (half-open),
+ * if it succeeds the breaker closes with an empty window, otherwise it opens again.
+ * <p>
+ * The breaker takes no locks, the state is swapped with compare-and-set
+ * and the window is a ring of atomic slots, so it is safe to share between threads.
+ *
+ * <pre>{@code
+ * CircuitBreaker breaker = CircuitBreaker.of(100, 0.5, 20, Duration.ofSeconds(30));
+ * Result<Response, Throwable> response = breaker.call(() -> client.send(request));
+ * }</pre>
+ *
+ * @author Alan Teesdale
+ */
+public final class CircuitBreaker {
+    /**
+     * The state of a breaker.
+     */
+    public enum State {
+        /** Calls run and their outcomes are recorded. */
+        CLOSED,
+        /** Calls are rejected without running. */
+        OPEN,
+        /** A single probe call is running, every other call is rejected. */
+        HALF_OPEN
+    }
+
+    private record Status(State state, long openedAt) {}
+
+    private static final Status CLOSED = new Status(State.CLOSED, 0);
+    private static final Status HALF_OPEN = new Status(State.HALF_OPEN, 0);
+
+    private static final int EMPTY = 0;
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+
+    private final int windowSize;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final Result<?, Throwable> rejected;
+
+    private final AtomicReference<Status> status = new AtomicReference<>(CLOSED);
+    private final AtomicIntegerArray window;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private CircuitBreaker(int windowSize, double failureRateThreshold, int minimumCalls, Duration openDuration) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+        }
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]: " + failureRateThreshold);
+        }
+        if (minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("minimumCalls must be between 1 and windowSize: " + minimumCalls);
+        }
+        if (openDuration.isNegative()) {
+            throw new IllegalArgumentException("openDuration must not be negative: " + openDuration);
+        }
+        this.windowSize = windowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openNanos = openDuration.toNanos();
+        this.window = new AtomicIntegerArray(windowSize);
+        this.rejected = new Err<>(new CircuitOpenException("Circuit breaker is open"));
+    }
+
+    /**
+     * Create a closed circuit breaker.
+     *
+     * @param windowSize           How many of the most recent calls are used to work out the failure rate.
+     * @param failureRateThreshold The share of failed calls (0 exclusive to 1 inclusive) which opens the breaker.
+     * @param minimumCalls         How many calls must be recorded before the breaker can open.
+     * @param openDuration         How long the breaker stays open before letting a probe call through.
+     *
+     * @return The circuit breaker.
+     */
+    public static CircuitBreaker of(int windowSize, double failureRateThreshold, int minimumCalls, Duration openDuration) {
+        return new CircuitBreaker(windowSize, failureRateThreshold, minimumCalls, Objects.requireNonNull(openDuration));
+    }
+
+    /**
+     * Run the supplier unless the breaker is open.
+     *
+     * @param function The function to run.
+     * @param <T> The return type of the function.
+     *
+     * @return The result of the function, or an Err holding a {@link CircuitOpenException} if the call was rejected.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T, Throwable> call(FallibleSupplier<T> function) {
+        Objects.requireNonNull(function);
+        Status current = status.get();
+        if (current.state() != State.CLOSED) {
+            if (current.state() == State.HALF_OPEN
+                    || System.nanoTime() - current.openedAt() < openNanos
+                    || !status.compareAndSet(current, HALF_OPEN)) {
+                return (Result<T, Throwable>) rejected;
+            }
+            Result<T, Throwable> probe = null;
+            try {
+                probe = Result.fromFunction(function);
+                return probe;
+            } finally {
+                // if the probe threw (for example from a listener) the breaker opens again rather than staying half-open
+                if (probe != null && probe.isOk()) {
+                    clearWindow();
+                    status.set(CLOSED);
+                } else {
+                    status.set(new Status(State.OPEN, System.nanoTime()));
+                }
+            }
+        }
+        Result<T, Throwable> result = Result.fromFunction(function);
+        record(result.hasError());
+        return result;
+    }
+
+    /**
+     * @return The current state of the breaker, an open breaker whose open duration has passed
+     *     is still reported as open until a call probes it.
+     */
+    public State state() {
+        return status.get().state();
+    }
+
+    /**
+     * @return The share of failures among the recorded calls, 0 if none have been recorded.
+     */
+    public double failureRate() {
+        int calls = recorded.get();
+        return calls == 0 ? 0 : (double) failures.get() / calls;
+    }
+
+    private void record(boolean failed) {
+        int slot = (int) Math.floorMod(cursor.getAndIncrement(), (long) windowSize);
+        int previous = window.getAndSet(slot, failed ? FAILURE : SUCCESS);
+        if (previous == EMPTY) {
+            recorded.incrementAndGet();
+        }
+        int delta = (failed ? 1 : 0) - (previous == FAILURE ? 1 : 0);
+        if (delta != 0) {
+            failures.addAndGet(delta);
+        }
+        if (failed) {
+            int calls = recorded.get();
+            if (calls >= minimumCalls && failures.get() >= failureRateThreshold * calls) {
+                status.compareAndSet(CLOSED, new Status(State.OPEN, System.nanoTime()));
+            }
+        }
+    }
+
+    private void clearWindow() {
+        for (int i = 0; i < windowSize; i++) {
+            int previous = window.getAndSet(i, EMPTY);
+            if (previous != EMPTY) {
+                recorded.decrementAndGet();
+                if (previous == FAILURE) {
+                    failures.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package result;
+
+/**
+ * The error of a call rejected by an open {@link CircuitBreaker}.
+ * A single instance is shared by every rejected call of a breaker, so it has no stack trace.
+ *
+ * @author Alan Teesdale
+ */
+public class CircuitOpenException extends StacklessException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an exception for a rejected call.
+     *
+     * @param message The detail message.
+     */
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
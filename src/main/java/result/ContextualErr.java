@@ -0,0 +1,187 @@
+package result;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The Err variant of the result, carrying a {@link ResultContext}, see {@link Result#withContext}.
+ * Plain {@link Err}s stay a single field, only errors given a context pay for one.
+ * <p>
+ * The context is carried to every Err derived from this one without being copied:
+ * {@link #map} and {@link #flatMap} return this result, {@link #mapError} keeps the context,
+ * and an Err given by {@link #or} or the error mappers gets this context under its own.
+ * The context is metadata, so it is not part of equality, this is equal to a plain Err of an equal error.
+ *
+ * @param error   The error this variant holds.
+ * @param context The context of the error.
+ *
+ * @author Alan Teesdale
+ */
+record ContextualErr<T, E>(E error, ResultContext context) implements Result<T, E> {
+    @Override
+    public T get() throws UnwrapException {
+        throw UnwrapException.ofErr(error);
+    }
+
+    @Override
+    public E getError() {
+        return error;
+    }
+
+    @Override
+    public boolean isOk() {
+        return false;
+    }
+
+    @Override
+    public void ifOk(Consumer<? super T> action) {
+    }
+
+    @Override
+    public void ifOkOrElse(Consumer<? super T> action, Runnable emptyAction) {
+        emptyAction.run();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <U> Result<U, E> map(Function<? super T, ? extends U> mapper) {
+        return (Result<U, E>) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <U> Result<U, E> flatMap(Function<? super T, ? extends Result<? extends U, ? extends E>> mapper) {
+        return (Result<U, E>) this;
+    }
+
+    @Override
+    public <U> Result<T, U> mapError(Function<? super E, ? extends U> mapper) {
+        return new ContextualErr<>(mapper.apply(error), context);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Result<T, E> or(Supplier<? extends Result<? extends T, ? extends E>> supplier) {
+        Result<T, E> result = (Result<T, E>) supplier.get();
+        if (Instrumentation.ENABLED) {
+            Instrumentation.outcome(ResultListener.Operation.OR, result);
+        }
+        return carry(result);
+    }
+
+    @Override
+    public Optional<T> toOptional() {
+        return Optional.empty();
+    }
+
+    @Override
+    public T orElse(T other) {
+        return other;
+    }
+
+    @Override
+    public <U> U match(Function<Result<T, E>, U> defaultArm, Collection<MatchArm<T, E, U>> matchArms) {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.err(ResultListener.Operation.MATCH, error);
+        }
+        for (MatchArm<T, E, U> arm : matchArms) {
+            if (arm instanceof ErrArm<T, E, U> e && e.shouldMap().test(error)) {
+                return e.mapper().apply(error);
+            }
+        }
+        return defaultArm.apply(this);
+    }
+
+    @Override
+    public <U> U match(Function<T, U> defaultOk, Function<E, U> defaultErr, Collection<MatchArm<T, E, U>> matchArms) {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.err(ResultListener.Operation.MATCH, error);
+        }
+        for (MatchArm<T, E, U> arm : matchArms) {
+            if (arm instanceof ErrArm<T, E, U> e && e.shouldMap().test(error)) {
+                return e.mapper().apply(error);
+            }
+        }
+        return defaultErr.apply(error);
+    }
+
+    @Override
+    public T orElseGet(Function<? super E, ? extends T> supplier) {
+        return supplier.apply(error);
+    }
+
+    @Override
+    public Result<T, E> filter(Predicate<? super T> predicate, Function<? super T, ? super E> toError) {
+        return this;
+    }
+
+    @Override
+    public <Er extends Throwable> T orElseThrow(Supplier<? extends Er> newError) throws Er {
+        throw newError.get();
+    }
+
+    @Override
+    public <Er extends Throwable> T orElseThrow(Function<E, Er> newError) throws Er {
+        throw newError.apply(error);
+    }
+
+    @Override
+    public Result<T, E> transformMatchingError(Predicate<? super E> shouldMap, Function<? super E, ? extends T> mapper) {
+        if (shouldMap.test(error)) {
+            return Result.ok(mapper.apply(error));
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Result<T, E> flatMapMatchingError(Predicate<? super E> shouldMap, Function<E, Result<? super T, ? extends E>> mapper) {
+        if (shouldMap.test(error)) {
+            return carry((Result<T, E>) mapper.apply(error));
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <U> Result<T, U> flatMapError(Function<? super E, Result<? extends T, ? extends U>> mapper) {
+        return carry((Result<T, U>) mapper.apply(error));
+    }
+
+    @Override
+    public Result<T, E> withContext(String key, Object value) {
+        return new ContextualErr<>(error, context.with(key, value));
+    }
+
+    private <U> Result<T, U> carry(Result<T, U> result) {
+        return carry(context, result);
+    }
+
+    /**
+     * @param context The context to carry.
+     * @param result  The result derived from an Err with the context.
+     *
+     * @return The result, with the context under its own if it's an Err.
+     */
+    static <T, E> Result<T, E> carry(ResultContext context, Result<T, E> result) {
+        if (result.isOk() || context.isEmpty()) {
+            return result;
+        }
+        return new ContextualErr<>(result.getError(), context.withAll(result.context()));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Result<?, ?> other && !other.isOk() && Objects.equals(error, other.getError());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(error);
+    }
+}
@@ -0,0 +1,311 @@
+package result;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.stream.DoubleStream;
+
+/**
+ * A {@link ResultBatch} which keeps its Ok values in a {@code double[]}, see {@link DoubleResult}.
+ *
+ * @param <E> The Err type of the results.
+ *
+ * @author Alan Teesdale
+ */
+public final class DoubleResultBatch<E> {
+    private final ResultFlags flags;
+    private final double[] values;
+    private final Object[] errors;
+
+    DoubleResultBatch(ResultFlags flags, double[] values, Object[] errors) {
+        this.flags = flags;
+        this.values = values;
+        this.errors = errors;
+    }
+
+    /**
+     * Create a batch holding the given results, in order.
+     *
+     * @param results The results to hold.
+     *
+     * @return The batch.
+     */
+    public static <E> DoubleResultBatch<E> from(Collection<? extends DoubleResult<? extends E>> results) {
+        Builder<E> builder = new Builder<>(results.size());
+        for (DoubleResult<? extends E> result : results) {
+            builder.add(result);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return A builder for a batch.
+     */
+    public static <E> Builder<E> builder() {
+        return new Builder<>(16);
+    }
+
+    /**
+     * @return The number of results in the batch.
+     */
+    public int size() {
+        return flags.size();
+    }
+
+    /**
+     * @return The number of Ok results in the batch.
+     */
+    public int okCount() {
+        return flags.okCount();
+    }
+
+    /**
+     * @return The number of Err results in the batch.
+     */
+    public int errCount() {
+        return flags.errCount();
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return true if the result at the index is Ok.
+     */
+    public boolean isOk(int index) {
+        return flags.isOk(index);
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return The result at the index, created on demand.
+     */
+    public DoubleResult<E> get(int index) {
+        return isOk(index) ? DoubleResult.ok(values[flags.valueIndex(index)]) : DoubleResult.err(error(flags.errorIndex(index)));
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return The value of the Ok result at the index.
+     *
+     * @throws UnwrapException if the result is an Err.
+     */
+    public double getAsDouble(int index) throws UnwrapException {
+        if (!isOk(index)) {
+            throw UnwrapException.ofErr(error(flags.errorIndex(index)));
+        }
+        return values[flags.valueIndex(index)];
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return The error of the Err result at the index.
+     *
+     * @throws UnwrapException if the result is Ok.
+     */
+    public E getError(int index) throws UnwrapException {
+        if (isOk(index)) {
+            throw UnwrapException.ofOk(get(index));
+        }
+        return error(flags.errorIndex(index));
+    }
+
+    /**
+     * @return The Ok values, in order.
+     */
+    public DoubleStream values() {
+        return Arrays.stream(values);
+    }
+
+    /**
+     * @return The sum of the Ok values.
+     */
+    public double sum() {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Map every Ok value, see {@link DoubleResult#map(DoubleUnaryOperator)}.
+     *
+     * @param mapper The function to apply to the values.
+     *
+     * @return A batch with the mapped values and the same errors.
+     */
+    public DoubleResultBatch<E> map(DoubleUnaryOperator mapper) {
+        double[] mapped = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            mapped[i] = mapper.applyAsDouble(values[i]);
+        }
+        return new DoubleResultBatch<>(flags, mapped, errors);
+    }
+
+    /**
+     * Map every Ok value to an object, see {@link DoubleResult#mapToObj(DoubleFunction)}.
+     *
+     * @param mapper The function to apply to the values.
+     *
+     * @return A batch with the mapped values and the same errors.
+     */
+    public <U> ResultBatch<U, E> mapToObj(DoubleFunction<? extends U> mapper) {
+        Object[] mapped = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            mapped[i] = Objects.requireNonNull(mapper.apply(values[i]));
+        }
+        return new ResultBatch<>(flags, mapped, errors);
+    }
+
+    /**
+     * Map every error, see {@link DoubleResult#mapError(Function)}.
+     *
+     * @param mapper The function to apply to the errors.
+     *
+     * @return A batch with the same values and the mapped errors.
+     */
+    public <F> DoubleResultBatch<F> mapError(Function<? super E, ? extends F> mapper) {
+        Object[] mapped = new Object[errors.length];
+        for (int i = 0; i < errors.length; i++) {
+            mapped[i] = Objects.requireNonNull(mapper.apply(error(i)));
+        }
+        return new DoubleResultBatch<>(flags, values, mapped);
+    }
+
+    /**
+     * Turn every Ok value which fails the predicate into an error, see {@link DoubleResult#filter}.
+     *
+     * @param predicate The test for the values.
+     * @param toError   Creates the error for a value which fails the test.
+     *
+     * @return A batch where the failing values are errors, or this batch if every value passes.
+     */
+    public DoubleResultBatch<E> filter(DoublePredicate predicate, DoubleFunction<? extends E> toError) {
+        boolean[] passed = new boolean[values.length];
+        int passCount = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (passed[i] = predicate.test(values[i])) {
+                passCount++;
+            }
+        }
+        if (passCount == values.length) {
+            return this;
+        }
+        ResultFlags.Builder newFlags = new ResultFlags.Builder(size());
+        double[] newValues = new double[passCount];
+        Object[] newErrors = new Object[size() - passCount];
+        int value = 0;
+        int error = 0;
+        int newValue = 0;
+        int newError = 0;
+        for (int i = 0; i < size(); i++) {
+            if (!isOk(i)) {
+                newErrors[newError++] = errors[error++];
+                newFlags.add(false);
+            } else if (passed[value]) {
+                newValues[newValue++] = values[value++];
+                newFlags.add(true);
+            } else {
+                newErrors[newError++] = Objects.requireNonNull(toError.apply(values[value++]));
+                newFlags.add(false);
+            }
+        }
+        return new DoubleResultBatch<>(newFlags.build(), newValues, newErrors);
+    }
+
+    /**
+     * @param predicate The test for the values.
+     *
+     * @return The number of Ok values which pass the test.
+     */
+    public int count(DoublePredicate predicate) {
+        int count = 0;
+        for (double value : values) {
+            if (predicate.test(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return A batch of the same results with boxed values.
+     */
+    public ResultBatch<Double, E> boxed() {
+        return mapToObj(Double::valueOf);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E error(int i) {
+        return (E) errors[i];
+    }
+
+    /**
+     * Collects results into a {@link DoubleResultBatch}.
+     */
+    public static final class Builder<E> {
+        private final ResultFlags.Builder flags;
+        private double[] values;
+        private Object[] errors;
+        private int valueCount;
+        private int errorCount;
+
+        private Builder(int expectedSize) {
+            this.flags = new ResultFlags.Builder(expectedSize);
+            this.values = new double[Math.max(1, expectedSize)];
+            this.errors = new Object[4];
+        }
+
+        /**
+         * @param result The result to add.
+         *
+         * @return This builder.
+         */
+        public Builder<E> add(DoubleResult<? extends E> result) {
+            return result.isOk() ? addOk(result.getAsDouble()) : addErr(result.getError());
+        }
+
+        /**
+         * @param value The value of an Ok result to add.
+         *
+         * @return This builder.
+         */
+        public Builder<E> addOk(double value) {
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, valueCount * 2);
+            }
+            flags.add(true);
+            values[valueCount++] = value;
+            return this;
+        }
+
+        /**
+         * @param error The error of an Err result to add.
+         *
+         * @return This builder.
+         */
+        public Builder<E> addErr(E error) {
+            Objects.requireNonNull(error);
+            if (errorCount == errors.length) {
+                errors = Arrays.copyOf(errors, errorCount * 2);
+            }
+            flags.add(false);
+            errors[errorCount++] = error;
+            return this;
+        }
+
+        /**
+         * @return A batch of the results added so far.
+         */
+        public DoubleResultBatch<E> build() {
+            return new DoubleResultBatch<>(flags.build(), Arrays.copyOf(values, valueCount), Arrays.copyOf(errors, errorCount));
+        }
+    }
+}
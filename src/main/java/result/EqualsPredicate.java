@@ -0,0 +1,18 @@
+package result;
+
+import java.util.function.Predicate;
+
+/**
+ * The predicate used by {@link MatchArm#okay} and {@link MatchArm#error}.
+ * Being a distinct type lets a {@link MatchTable} index these arms by their value.
+ *
+ * @param value The value to compare against.
+ *
+ * @author Alan Teesdale
+ */
+record EqualsPredicate<V>(V value) implements Predicate<V> {
+	@Override
+	public boolean test(V v) {
+		return v.equals(value);
+	}
+}
@@ -1,6 +1,7 @@
 package result;
 
 import java.util.Collection;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -17,8 +18,8 @@ import java.util.function.Supplier;
  */
 record Err<T, E>(E error) implements Result<T, E> {
     @Override
-    public T get() throws RuntimeException {
-        throw new RuntimeException("Result is error variant with value: " + error);
+    public T get() throws UnwrapException {
+        throw UnwrapException.ofErr(error);
     }
 
     @Override
@@ -61,7 +62,11 @@ record Err<T, E>(E error) implements Result<T, E> {
     @SuppressWarnings("unchecked")
     @Override
     public Result<T, E> or(Supplier<? extends Result<? extends T, ?extends E>> supplier) {
-        return (Result<T, E>) supplier.get();
+        Result<T, E> result = (Result<T, E>) supplier.get();
+        if (Instrumentation.ENABLED) {
+            Instrumentation.outcome(ResultListener.Operation.OR, result);
+        }
+        return result;
     }
 
     @Override
@@ -79,6 +84,9 @@ record Err<T, E>(E error) implements Result<T, E> {
 			Function<Result<T, E>, U> defaultArm,
             Collection<MatchArm<T, E, U>> matchArms
     ) {
+		if (Instrumentation.ENABLED) {
+			Instrumentation.err(ResultListener.Operation.MATCH, this.error);
+		}
 		for (MatchArm<T, E, U> arm : matchArms) {
 			if (arm instanceof ErrArm<T, E, U> e && e.shouldMap().test(this.error)) {
 				return e.mapper().apply(this.error);
@@ -93,6 +101,9 @@ record Err<T, E>(E error) implements Result<T, E> {
 			Function<E, U> defaultErr,
             Collection<MatchArm<T, E, U>> matchArms
     ) {
+		if (Instrumentation.ENABLED) {
+			Instrumentation.err(ResultListener.Operation.MATCH, this.error);
+		}
 		for (MatchArm<T, E, U> arm : matchArms) {
 			if (arm instanceof ErrArm<T, E, U> e && e.shouldMap().test(this.error)) {
 				return e.mapper().apply(this.error);
@@ -137,6 +148,19 @@ record Err<T, E>(E error) implements Result<T, E> {
 		return this;
     }
 
+    /**
+     * Equal to any Err variant of an equal error, as a context is not part of equality.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Result<?, ?> other && !other.isOk() && Objects.equals(error, other.getError());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(error);
+    }
+
     @SuppressWarnings("unchecked")
 	@Override
 	public <U> Result<T, U> flatMapError(Function<? super E, Result<? extends T, ? extends U>> mapper) {
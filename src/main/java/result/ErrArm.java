@@ -0,0 +1,6 @@
+package result;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+record ErrArm<T, E, U>(Predicate<E> shouldMap, Function<E, U> mapper) implements MatchArm<T, E, U> {}
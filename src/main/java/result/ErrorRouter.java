@@ -0,0 +1,204 @@
+package result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A precompiled set of recoveries for errors, each chosen by the error's class or by a predicate.
+ * It replaces a chain of {@link Result#flatMapMatchingError} calls, or a long run of {@code instanceof} checks,
+ * with one lookup and one recovery.
+ * <p>
+ * As with a {@link MatchTable}, the first route (in the order they were added) that matches wins.
+ * For each concrete error class, the routes it could take are worked out once and cached in a {@link ClassValue}:
+ * class routes it isn't an instance of are dropped, and nothing after the first class route it is an instance of
+ * is kept, as that route always matches. Routing an error only tests the predicates declared before its class route.
+ *
+ * <pre>{@code
+ * ErrorRouter<Response, Throwable> toResponse = ErrorRouter.<Response, Throwable>builder()
+ *         .recover(NoSuchElementException.class, e -> Response.notFound())
+ *         .when(e -> e.getMessage() == null, e -> Result.err(new IllegalStateException(e)))
+ *         .recover(IllegalArgumentException.class, e -> Response.badRequest(e.getMessage()))
+ *         .build();
+ * Result<Response, Throwable> response = toResponse.route(handle(request));
+ * }</pre>
+ *
+ * @param <T> The Ok type of the results being routed.
+ * @param <E> The Err type of the results being routed.
+ *
+ * @author Alan Teesdale
+ */
+public final class ErrorRouter<T, E> {
+    private final Class<?>[] types;
+    private final Predicate<? super E>[] predicates;
+    private final Function<? super E, ? extends Result<? extends T, ? extends E>>[] recoveries;
+    private final ClassValue<int[]> routes = new ClassValue<>() {
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            return routesFor(type);
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    private ErrorRouter(Builder<T, E> builder) {
+        this.types = builder.types.toArray(Class<?>[]::new);
+        this.predicates = builder.predicates.toArray(Predicate[]::new);
+        this.recoveries = builder.recoveries.toArray(Function[]::new);
+    }
+
+    /**
+     * @return A builder for a router.
+     */
+    public static <T, E> Builder<T, E> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Recover from the error of an Err result, Ok results are returned as they are.
+     * As with {@link Result#flatMapMatchingError}, an Err given by a recovery gets the result's context under its own.
+     *
+     * @param result The result to route.
+     *
+     * @return The result of the first matching recovery, or the result itself if no route matches.
+     */
+    public Result<T, E> route(Result<T, E> result) {
+        if (result.isOk()) {
+            return result;
+        }
+        Result<T, E> routed = route(result.getError(), result);
+        return routed == result ? result : ContextualErr.carry(result.context(), routed);
+    }
+
+    /**
+     * Recover from an error.
+     *
+     * @param error The error to route.
+     *
+     * @return The result of the first matching recovery, or Err of the error if no route matches.
+     */
+    public Result<T, E> recover(E error) {
+        return route(Objects.requireNonNull(error), null);
+    }
+
+    /**
+     * @param unrecovered The result to return if no route matches, or null to create one.
+     */
+    @SuppressWarnings("unchecked")
+    private Result<T, E> route(E error, Result<T, E> unrecovered) {
+        for (int route : routes.get(error.getClass())) {
+            if (types[route] != null || predicates[route].test(error)) {
+                return (Result<T, E>) recoveries[route].apply(error);
+            }
+        }
+        return unrecovered == null ? Result.err(error) : unrecovered;
+    }
+
+    /**
+     * @return The routes an error of the class could take, in order, ending at the first class route it matches.
+     */
+    private int[] routesFor(Class<?> type) {
+        int[] candidates = new int[types.length];
+        int count = 0;
+        for (int route = 0; route < types.length; route++) {
+            if (types[route] == null) {
+                candidates[count++] = route;
+            } else if (types[route].isAssignableFrom(type)) {
+                candidates[count++] = route;
+                break;
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Collects the routes of an {@link ErrorRouter}.
+     */
+    public static final class Builder<T, E> {
+        private final List<Class<?>> types = new ArrayList<>();
+        private final List<Predicate<? super E>> predicates = new ArrayList<>();
+        private final List<Function<? super E, ? extends Result<? extends T, ? extends E>>> recoveries = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * Route errors which are instances of the type, see {@link Result#flatMapMatchingError}.
+         *
+         * @param type     The class of the errors to route, subclasses are routed too.
+         * @param recovery Gives the result for an error of the type.
+         *
+         * @return This builder.
+         */
+        @SuppressWarnings("unchecked")
+        public <X extends E> Builder<T, E> on(Class<X> type, Function<? super X, ? extends Result<? extends T, ? extends E>> recovery) {
+            Objects.requireNonNull(recovery);
+            return add(Objects.requireNonNull(type), null, error -> recovery.apply((X) error));
+        }
+
+        /**
+         * Recover errors which are instances of the type to a value, see {@link Result#transformMatchingError}.
+         *
+         * @param type     The class of the errors to recover, subclasses are recovered too.
+         * @param recovery Gives the value for an error of the type.
+         *
+         * @return This builder.
+         */
+        public <X extends E> Builder<T, E> recover(Class<X> type, Function<? super X, ? extends T> recovery) {
+            Objects.requireNonNull(recovery);
+            return on(type, error -> Result.ok(recovery.apply(error)));
+        }
+
+        /**
+         * Route errors which match the predicate, see {@link Result#flatMapMatchingError}.
+         *
+         * @param shouldRoute The test for the errors to route.
+         * @param recovery    Gives the result for a matching error.
+         *
+         * @return This builder.
+         */
+        public Builder<T, E> when(
+                Predicate<? super E> shouldRoute,
+                Function<? super E, ? extends Result<? extends T, ? extends E>> recovery
+        ) {
+            return add(null, Objects.requireNonNull(shouldRoute), Objects.requireNonNull(recovery));
+        }
+
+        /**
+         * @return A router with the routes added so far.
+         *
+         * @throws IllegalArgumentException if a class route comes after a route for one of its superclasses.
+         */
+        public ErrorRouter<T, E> build() {
+            for (int route = 0; route < types.size(); route++) {
+                if (types.get(route) != null) {
+                    checkReachable(types.get(route), route);
+                }
+            }
+            return new ErrorRouter<>(this);
+        }
+
+        private void checkReachable(Class<?> type, int route) {
+            for (int earlier = 0; earlier < route; earlier++) {
+                Class<?> earlierType = types.get(earlier);
+                if (earlierType != null && earlierType.isAssignableFrom(type)) {
+                    throw new IllegalArgumentException(
+                            "The route for " + type.getName() + " can never match, an earlier route matches " + earlierType.getName()
+                    );
+                }
+            }
+        }
+
+        private Builder<T, E> add(
+                Class<?> type,
+                Predicate<? super E> predicate,
+                Function<? super E, ? extends Result<? extends T, ? extends E>> recovery
+        ) {
+            types.add(type);
+            predicates.add(predicate);
+            recoveries.add(recovery);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package result;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs a group of suppliers concurrently, see {@link Result#all} and {@link Result#any}.
+ * At most {@code maxConcurrency} suppliers run at once, the next one is only submitted when another completes.
+ * Once the outcome is known, or the timeout passes, every supplier still running is cancelled.
+ *
+ * @author Alan Teesdale
+ */
+final class FanOut<T> {
+    private final List<? extends FallibleSupplier<? extends T>> suppliers;
+    private final ExecutorCompletionService<Completed<T>> completion;
+    private final Set<Future<Completed<T>>> running = new HashSet<>();
+    private final int maxConcurrency;
+    private final long deadline;
+    private int submitted;
+
+    private FanOut(
+            Collection<? extends FallibleSupplier<? extends T>> suppliers,
+            ExecutorService executor,
+            int maxConcurrency,
+            Duration timeout
+    ) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.suppliers = List.copyOf(suppliers);
+        this.completion = new ExecutorCompletionService<>(Objects.requireNonNull(executor));
+        this.maxConcurrency = maxConcurrency;
+        this.deadline = System.nanoTime() + timeout.toNanos();
+    }
+
+    static <T> Result<List<T>, Throwable> all(
+            Collection<? extends FallibleSupplier<? extends T>> suppliers,
+            ExecutorService executor,
+            int maxConcurrency,
+            Duration timeout
+    ) {
+        FanOut<T> fanOut = new FanOut<>(suppliers, executor, maxConcurrency, timeout);
+        try {
+            fanOut.start();
+            Object[] values = new Object[fanOut.suppliers.size()];
+            for (int i = 0; i < values.length; i++) {
+                Result<Completed<T>, Throwable> next = fanOut.next();
+                if (next.hasError()) {
+                    return Result.err(next.getError());
+                }
+                Completed<T> completed = next.get();
+                if (completed.result().hasError()) {
+                    return Result.err(completed.result().getError());
+                }
+                values[completed.index()] = completed.result().get();
+                fanOut.submitNext();
+            }
+            @SuppressWarnings("unchecked")
+            List<T> list = (List<T>) Collections.unmodifiableList(Arrays.asList(values));
+            return Result.ok(list);
+        } finally {
+            fanOut.cancelRunning();
+        }
+    }
+
+    static <T> Result<T, Throwable> any(
+            Collection<? extends FallibleSupplier<? extends T>> suppliers,
+            ExecutorService executor,
+            int maxConcurrency,
+            Duration timeout
+    ) {
+        FanOut<T> fanOut = new FanOut<>(suppliers, executor, maxConcurrency, timeout);
+        try {
+            fanOut.start();
+            Result<T, Throwable> last = Result.err(new NoSuchElementException("No suppliers were given"));
+            for (int i = 0; i < fanOut.suppliers.size(); i++) {
+                Result<Completed<T>, Throwable> next = fanOut.next();
+                if (next.hasError()) {
+                    return Result.err(next.getError());
+                }
+                last = next.get().result();
+                if (last.isOk()) {
+                    return last;
+                }
+                fanOut.submitNext();
+            }
+            return last;
+        } finally {
+            fanOut.cancelRunning();
+        }
+    }
+
+    /**
+     * Submit the first suppliers, called inside the try block so those submitted are cancelled
+     * if a later submission is rejected.
+     */
+    private void start() {
+        for (int i = 0; i < Math.min(maxConcurrency, suppliers.size()); i++) {
+            submitNext();
+        }
+    }
+
+    private void submitNext() {
+        if (submitted < suppliers.size()) {
+            int index = submitted++;
+            FallibleSupplier<? extends T> supplier = suppliers.get(index);
+            running.add(completion.submit(() -> new Completed<>(index, Result.<T>fromFunction(supplier::getThrows))));
+        }
+    }
+
+    /**
+     * Wait for the next supplier to complete.
+     *
+     * @return The completed supplier, or an error if the timeout passed or the thread was interrupted.
+     */
+    private Result<Completed<T>, Throwable> next() {
+        try {
+            Future<Completed<T>> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (done == null) {
+                return Result.err(new TimeoutException("Suppliers did not complete in time"));
+            }
+            running.remove(done);
+            return Result.ok(done.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.err(e);
+        } catch (ExecutionException e) {
+            return Result.err(e.getCause());
+        }
+    }
+
+    private void cancelRunning() {
+        for (Future<Completed<T>> future : running) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * The result of one supplier.
+     *
+     * @param index  The position of the supplier.
+     * @param result The captured result of the supplier.
+     */
+    private record Completed<T>(int index, Result<T, Throwable> result) {}
+}
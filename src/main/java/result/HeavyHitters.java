@@ -0,0 +1,187 @@
+package result;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded table of the most frequent keys, using the space saving algorithm.
+ * Once the table is full, a new key replaces the key with the lowest count and inherits that count,
+ * so a key which becomes common late still rises to the top. An inherited count is kept as the entry's error:
+ * a key's true count is between {@code count - error} and {@code count}, and every key seen more often
+ * than the smallest count in the table is tracked.
+ * <p>
+ * Counting a tracked key only touches its {@link LongAdder}, so it scales across threads.
+ * Adding a new key takes a lock, and an increment racing with the replacement of its key may be lost.
+ * Tables can be {@link #merge merged}, which combines the counts of both before keeping the largest.
+ *
+ * @param <K> The type of key being counted.
+ *
+ * @author Alan Teesdale
+ */
+final class HeavyHitters<K> {
+    private final int capacity;
+    private final ConcurrentHashMap<K, Counter> counters = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * A tracked key with its estimated count.
+     *
+     * @param key   The key.
+     * @param count The estimated count, never less than the true count.
+     * @param error How much the count may be over the true count.
+     */
+    record Entry<K>(K key, long count, long error) {}
+
+    /**
+     * The count of one tracked key, starting from the count it inherited.
+     */
+    private static final class Counter {
+        private final LongAdder count = new LongAdder();
+        private final long error;
+
+        private Counter(long count, long error) {
+            this.count.add(count);
+            this.error = error;
+        }
+    }
+
+    HeavyHitters(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    void add(K key) {
+        add(key, 1);
+    }
+
+    void add(K key, long count) {
+        total.add(count);
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = track(key);
+        }
+        if (counter != null) {
+            counter.count.add(count);
+        }
+    }
+
+    /**
+     * @return The tracked keys, highest count first, ties in the order of the keys' strings.
+     */
+    List<Entry<K>> entries() {
+        List<Entry<K>> entries = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> entries.add(new Entry<>(key, counter.count.sum(), counter.error)));
+        entries.sort(Comparator.comparingLong((Entry<K> e) -> e.count()).reversed()
+                .thenComparing(e -> String.valueOf(e.key())));
+        return entries;
+    }
+
+    /**
+     * @return The number of keys counted which can't be attributed to a tracked key for certain,
+     *         every count minus the guaranteed part of each tracked count.
+     */
+    long untracked() {
+        long guaranteed = 0;
+        for (Counter counter : counters.values()) {
+            guaranteed += counter.count.sum() - counter.error;
+        }
+        return total.sum() - guaranteed;
+    }
+
+    /**
+     * Add the counts of another table to this one, then keep the keys with the largest combined counts.
+     * A key missing from a full table may have been counted up to that table's smallest count,
+     * which is added to both its count and its error.
+     *
+     * @param other The table to merge, which is left unchanged.
+     */
+    synchronized void merge(HeavyHitters<? extends K> other) {
+        List<? extends Entry<? extends K>> theirs = other.entries();
+        List<Entry<K>> mine = entries();
+        long myMissing = mine.size() < capacity || mine.isEmpty() ? 0 : mine.get(mine.size() - 1).count();
+        long theirMissing = theirs.size() < other.capacity || theirs.isEmpty() ? 0 : theirs.get(theirs.size() - 1).count();
+
+        Map<K, long[]> combined = new HashMap<>();
+        for (Entry<K> entry : mine) {
+            combined.put(entry.key(), new long[] {entry.count() + theirMissing, entry.error() + theirMissing});
+        }
+        for (Entry<? extends K> entry : theirs) {
+            long[] counts = combined.get(entry.key());
+            if (counts == null) {
+                combined.put(entry.key(), new long[] {entry.count() + myMissing, entry.error() + myMissing});
+            } else {
+                counts[0] += entry.count() - theirMissing;
+                counts[1] += entry.error() - theirMissing;
+            }
+        }
+        List<Map.Entry<K, long[]>> largest = new ArrayList<>(combined.entrySet());
+        largest.sort(Comparator.comparingLong((Map.Entry<K, long[]> e) -> e.getValue()[0]).reversed()
+                .thenComparing(e -> String.valueOf(e.getKey())));
+        counters.clear();
+        for (Map.Entry<K, long[]> entry : largest.subList(0, Math.min(capacity, largest.size()))) {
+            counters.put(entry.getKey(), new Counter(entry.getValue()[0], entry.getValue()[1]));
+        }
+        total.add(other.total.sum());
+    }
+
+    /**
+     * Track a key with a known count, such as one read from a checkpoint.
+     * The key is ignored if the table is full.
+     */
+    void restore(K key, long count, long error) {
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(count, error));
+        }
+    }
+
+    /**
+     * Set the total count, such as one read from a checkpoint, which must include every restored count.
+     */
+    void restoreTotal(long count) {
+        total.reset();
+        total.add(count);
+    }
+
+    synchronized void clear() {
+        counters.clear();
+        total.reset();
+    }
+
+    /**
+     * Start tracking the key, replacing the key with the lowest count if the table is full.
+     *
+     * @return The key's counter, or null if nothing can be tracked.
+     */
+    private synchronized Counter track(K key) {
+        Counter counter = counters.get(key);
+        if (counter != null || capacity == 0) {
+            return counter;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter(0, 0);
+        } else {
+            // the last entry in the order of entries(), so the choice doesn't depend on hashing
+            K lowest = null;
+            long lowestCount = Long.MAX_VALUE;
+            for (Map.Entry<K, Counter> entry : counters.entrySet()) {
+                long count = entry.getValue().count.sum();
+                if (count < lowestCount || count == lowestCount
+                        && String.valueOf(entry.getKey()).compareTo(String.valueOf(lowest)) > 0) {
+                    lowest = entry.getKey();
+                    lowestCount = count;
+                }
+            }
+            counters.remove(lowest);
+            counter = new Counter(lowestCount, lowestCount);
+        }
+        counters.put(key, counter);
+        return counter;
+    }
+}
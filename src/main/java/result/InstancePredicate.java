@@ -0,0 +1,18 @@
+package result;
+
+import java.util.function.Predicate;
+
+/**
+ * The predicate used by {@link MatchArm#errType}.
+ * Being a distinct type lets a {@link MatchTable} find these arms by the class of the value.
+ *
+ * @param type The class to test against.
+ *
+ * @author Alan Teesdale
+ */
+record InstancePredicate<V>(Class<? extends V> type) implements Predicate<V> {
+	@Override
+	public boolean test(V v) {
+		return type.isInstance(v);
+	}
+}
@@ -0,0 +1,113 @@
+package result;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The switch for instrumenting result operations.
+ * Instrumentation is only compiled in when the JVM is started with {@code -Dresult.instrumentation=true},
+ * otherwise {@link #ENABLED} is a constant false and every hook is removed by the JIT.
+ * When enabled, the hooks forward to the installed {@link ResultListener}, if there is one,
+ * tagged with the site named by the innermost enclosing {@link #scope(String, Supplier)}.
+ *
+ * @author Alan Teesdale
+ */
+public final class Instrumentation {
+    /**
+     * Whether the hooks are active, read once from the {@code result.instrumentation} system property.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("result.instrumentation");
+
+    /**
+     * The site of operations run outside any {@link #scope(String, Supplier)}.
+     */
+    public static final String UNNAMED_SITE = "";
+
+    private static final ThreadLocal<String> SITE = ThreadLocal.withInitial(() -> UNNAMED_SITE);
+
+    private static volatile ResultListener listener;
+
+    private Instrumentation() {}
+
+    /**
+     * Install the listener, replacing any previous one.
+     * Has no effect unless {@link #ENABLED} is true.
+     *
+     * @param resultListener The listener to send outcomes to.
+     */
+    public static void install(ResultListener resultListener) {
+        listener = resultListener;
+    }
+
+    /**
+     * Remove the installed listener.
+     */
+    public static void uninstall() {
+        listener = null;
+    }
+
+    /**
+     * Run the body with every operation it does on this thread reported under the site.
+     * Scopes nest, the innermost one names the site.
+     * When {@link #ENABLED} is false the body is simply run.
+     *
+     * <pre>{@code
+     * Result<User, Throwable> user = Instrumentation.scope("load-user", () -> Result.fromFunction(() -> load(id)));
+     * }</pre>
+     *
+     * @param site The name of the call site, for example the name of the calling method.
+     * @param body The code to run.
+     * @param <R>  The type the body returns.
+     *
+     * @return What the body returned.
+     */
+    public static <R> R scope(String site, Supplier<R> body) {
+        Objects.requireNonNull(site);
+        if (!ENABLED) {
+            return body.get();
+        }
+        String outer = SITE.get();
+        SITE.set(site);
+        try {
+            return body.get();
+        } finally {
+            SITE.set(outer);
+        }
+    }
+
+    static void ok(ResultListener.Operation operation) {
+        ok(operation, UNNAMED_SITE);
+    }
+
+    /**
+     * Report an Ok outcome under the site, or under the enclosing scope if the site is unnamed.
+     */
+    static void ok(ResultListener.Operation operation, String site) {
+        ResultListener current = listener;
+        if (current != null) {
+            current.onOk(operation, site.isEmpty() ? SITE.get() : site);
+        }
+    }
+
+    static void err(ResultListener.Operation operation, Object error) {
+        err(operation, UNNAMED_SITE, error);
+    }
+
+    /**
+     * Report an Err outcome under the site, or under the enclosing scope if the site is unnamed.
+     */
+    static void err(ResultListener.Operation operation, String site, Object error) {
+        ResultListener current = listener;
+        if (current != null) {
+            current.onErr(operation, site.isEmpty() ? SITE.get() : site, error);
+        }
+    }
+
+    static void outcome(ResultListener.Operation operation, Result<?, ?> result) {
+        if (result.isOk()) {
+            ok(operation);
+        } else {
+            err(operation, result.getError());
+        }
+    }
+}
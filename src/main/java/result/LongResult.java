@@ -0,0 +1,352 @@
+package result;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A result specialised to a primitive {@code long} value, so the value is never boxed.
+ * Mirrors the combinators of {@link Result}, and converts to and from it with {@link #boxed()} and {@link #from(Result)}.
+ *
+ * @param <E> The type of the error.
+ *
+ * @author Alan Teesdale
+ */
+public sealed interface LongResult<E> permits LongOk, LongErr {
+
+    /**
+     * Create an Ok result holding the value.
+     *
+     * @param value The value the result should hold.
+     * @return the ok result with a given value.
+     */
+    static <E> LongResult<E> ok(long value) {
+        return new LongOk<>(value);
+    }
+
+    /**
+     * Create an error variant of the result.
+     *
+     * @param error The error the result should hold.
+     * @return The error result with a given error.
+     */
+    static <E> LongResult<E> err(E error) {
+        return new LongErr<>(Objects.requireNonNull(error));
+    }
+
+    /**
+     * Unbox a result.
+     *
+     * @param result The result to convert.
+     * @return A result holding the unboxed value, or the same error.
+     */
+    static <E> LongResult<E> from(Result<? extends Long, ? extends E> result) {
+        return result.isOk() ? ok(result.get()) : err(result.getError());
+    }
+
+    /**
+     * Get the value out of the result, throws if of the Err variant.
+     *
+     * @return The value.
+     *
+     * @throws UnwrapException if the value doesn't exist.
+     */
+    long getAsLong() throws UnwrapException;
+
+    /**
+     * Get the Error if of the Err variant.
+     *
+     * @return The error that this result holds
+     *
+     * @throws UnwrapException if the result has no error - if it is the Ok variant.
+     */
+    E getError() throws UnwrapException;
+
+    /**
+     * Returns if the result is of the Ok var.
+     *
+     * @return true if the result is okay, that is if it is not the err variant.
+     */
+    boolean isOk();
+
+    /**
+     * Returns if the result is of the Err variant.
+     *
+     * @return true if the result is **not** okay, that is if it is the err variant.
+     */
+    default boolean hasError() {
+        return !isOk();
+    }
+
+    /**
+     * Run a consumer on the value if the result is okay.
+     *
+     * @param action the action to run on the result
+     */
+    void ifOk(LongConsumer action);
+
+    /**
+     * See {@link Result#map(Function)}.
+     *
+     * @param mapper map the value of the result to a different one if it exists
+     * @return A result containing the mapped value.
+     */
+    LongResult<E> map(LongUnaryOperator mapper);
+
+    /**
+     * See {@link Result#map(Function)}, maps the value to an object.
+     *
+     * @param mapper map the value of the result to a different one if it exists
+     * @param <U>    the type to map to
+     * @return A result containing the mapped value.
+     */
+    <U> Result<U, E> mapToObj(LongFunction<? extends U> mapper);
+
+    /**
+     * See {@link Result#flatMap(Function)}.
+     *
+     * @param mapper the function that maps the value to the new result
+     * @return a new result provided by the mapper given the value of this result
+     */
+    LongResult<E> flatMap(LongFunction<? extends LongResult<? extends E>> mapper);
+
+    /**
+     * See {@link Result#mapError(Function)}.
+     *
+     * @param mapper A function that takes the error to a different error type.
+     * @return A result which has the Err variant mapped to a different error.
+     */
+    <F> LongResult<F> mapError(Function<? super E, ? extends F> mapper);
+
+    /**
+     * See {@link Result#filter(java.util.function.Predicate, Function)}.
+     *
+     * @param predicate The predicate the value must match.
+     * @param toError A Function of an error for the Err case if it doesn't match the predicate.
+     * @return A result of Err variant if the value doesn't match the predicate.
+     */
+    LongResult<E> filter(LongPredicate predicate, LongFunction<? extends E> toError);
+
+    /**
+     * See {@link Result#or(Supplier)}.
+     *
+     * @param supplier A supplier of a result, which gets run if this is of the Err variant.
+     * @return This result if it's Ok, otherwise the result given by the supplier.
+     */
+    LongResult<E> or(Supplier<? extends LongResult<? extends E>> supplier);
+
+    /**
+     * Gets the value from the result if it exists, otherwise returns the other value.
+     *
+     * @param other the value to return if the result is of the Err variant.
+     * @return either the value of the result if it exists or the other value.
+     */
+    long orElse(long other);
+
+    /**
+     * Gets the value from the result if it exists, otherwise returns the result of the function.
+     *
+     * @param supplier the function to run on the error if the result is of the Err variant.
+     * @return either the value of the result if it exists or the result of the function.
+     */
+    long orElseGet(ToLongFunction<? super E> supplier);
+
+    /**
+     * Apply the function matching the variant of this result.
+     *
+     * @param okArm  The function to apply to the value.
+     * @param errArm The function to apply to the error.
+     * @param <U>    the return type
+     * @return a U given by one of the arms.
+     */
+    <U> U match(LongFunction<? extends U> okArm, Function<? super E, ? extends U> errArm);
+
+    /**
+     * Convert this result into an optional.
+     *
+     * @return An optional which holds the value if it exists.
+     */
+    OptionalLong toOptional();
+
+    /**
+     * Box the value of this result.
+     *
+     * @return An equivalent {@link Result}.
+     */
+    Result<Long, E> boxed();
+}
+
+/**
+ * The Ok variant of the {@link LongResult}.
+ *
+ * @param value The value this result holds.
+ */
+record LongOk<E>(long value) implements LongResult<E> {
+    @Override
+    public long getAsLong() {
+        return value;
+    }
+
+    @Override
+    public E getError() throws UnwrapException {
+        throw UnwrapException.ofOk(this);
+    }
+
+    @Override
+    public boolean isOk() {
+        return true;
+    }
+
+    @Override
+    public void ifOk(LongConsumer action) {
+        action.accept(value);
+    }
+
+    @Override
+    public LongResult<E> map(LongUnaryOperator mapper) {
+        return new LongOk<>(mapper.applyAsLong(value));
+    }
+
+    @Override
+    public <U> Result<U, E> mapToObj(LongFunction<? extends U> mapper) {
+        return Result.ok(mapper.apply(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public LongResult<E> flatMap(LongFunction<? extends LongResult<? extends E>> mapper) {
+        return (LongResult<E>) mapper.apply(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <F> LongResult<F> mapError(Function<? super E, ? extends F> mapper) {
+        return (LongResult<F>) this;
+    }
+
+    @Override
+    public LongResult<E> filter(LongPredicate predicate, LongFunction<? extends E> toError) {
+        if (predicate.test(value)) {
+            return this;
+        }
+        return LongResult.err(toError.apply(value));
+    }
+
+    @Override
+    public LongResult<E> or(Supplier<? extends LongResult<? extends E>> supplier) {
+        return this;
+    }
+
+    @Override
+    public long orElse(long other) {
+        return value;
+    }
+
+    @Override
+    public long orElseGet(ToLongFunction<? super E> supplier) {
+        return value;
+    }
+
+    @Override
+    public <U> U match(LongFunction<? extends U> okArm, Function<? super E, ? extends U> errArm) {
+        return okArm.apply(value);
+    }
+
+    @Override
+    public OptionalLong toOptional() {
+        return OptionalLong.of(value);
+    }
+
+    @Override
+    public Result<Long, E> boxed() {
+        return new Ok<>(value);
+    }
+}
+
+/**
+ * The Err variant of the {@link LongResult}.
+ *
+ * @param error The error this result holds.
+ */
+record LongErr<E>(E error) implements LongResult<E> {
+    @Override
+    public long getAsLong() throws UnwrapException {
+        throw UnwrapException.ofErr(error);
+    }
+
+    @Override
+    public E getError() {
+        return error;
+    }
+
+    @Override
+    public boolean isOk() {
+        return false;
+    }
+
+    @Override
+    public void ifOk(LongConsumer action) {
+    }
+
+    @Override
+    public LongResult<E> map(LongUnaryOperator mapper) {
+        return this;
+    }
+
+    @Override
+    public <U> Result<U, E> mapToObj(LongFunction<? extends U> mapper) {
+        return new Err<>(error);
+    }
+
+    @Override
+    public LongResult<E> flatMap(LongFunction<? extends LongResult<? extends E>> mapper) {
+        return this;
+    }
+
+    @Override
+    public <F> LongResult<F> mapError(Function<? super E, ? extends F> mapper) {
+        return new LongErr<>(mapper.apply(error));
+    }
+
+    @Override
+    public LongResult<E> filter(LongPredicate predicate, LongFunction<? extends E> toError) {
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public LongResult<E> or(Supplier<? extends LongResult<? extends E>> supplier) {
+        return (LongResult<E>) supplier.get();
+    }
+
+    @Override
+    public long orElse(long other) {
+        return other;
+    }
+
+    @Override
+    public long orElseGet(ToLongFunction<? super E> supplier) {
+        return supplier.applyAsLong(error);
+    }
+
+    @Override
+    public <U> U match(LongFunction<? extends U> okArm, Function<? super E, ? extends U> errArm) {
+        return errArm.apply(error);
+    }
+
+    @Override
+    public OptionalLong toOptional() {
+        return OptionalLong.empty();
+    }
+
+    @Override
+    public Result<Long, E> boxed() {
+        return new Err<>(error);
+    }
+}
@@ -4,7 +4,7 @@ import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-public sealed interface MatchArm<T, E, U> {
+public sealed interface MatchArm<T, E, U> permits OkArm, ErrArm {
     static <T, E, U> OkArm<T, E, U> ok(Predicate<T> shouldMap, Function<T, U> mapper) {
         return new OkArm<>(Objects.requireNonNull(shouldMap), Objects.requireNonNull(mapper));
     }
@@ -14,15 +14,24 @@ public sealed interface MatchArm<T, E, U> {
     }
 
 	static <T, E, U> OkArm<T, E, U> okay(T value, Function<T, U> mapper) {
-		return MatchArm.ok((Predicate<T>) t -> t.equals(value), mapper);
+		return MatchArm.ok(new EqualsPredicate<>(value), mapper);
     }
 
     static <T, E, U> ErrArm<T, E, U> error(E value, Function<E, U> mapper) {
-        return MatchArm.err((Predicate<E>) e -> e.equals(value), mapper);
+        return MatchArm.err(new EqualsPredicate<>(value), mapper);
     }
-}
-
-
-record OkArm<T, E, U>(Predicate<T> shouldMap, Function<T, U> mapper) implements MatchArm<T, E, U> {}
 
-record ErrArm<T, E, U>(Predicate<E> shouldMap, Function<E, U> mapper) implements MatchArm<T, E, U> {}
+    /**
+     * An arm for errors which are instances of the type, including its subclasses.
+     * A {@link MatchTable} finds these arms by the error's class rather than testing each one.
+     *
+     * @param type   The class of the errors to match.
+     * @param mapper The function to apply to a matching error.
+     *
+     * @return The match arm.
+     */
+    static <T, E, X extends E, U> ErrArm<T, E, U> errType(Class<X> type, Function<? super X, U> mapper) {
+        Objects.requireNonNull(mapper);
+        return MatchArm.err(new InstancePredicate<>(Objects.requireNonNull(type)), error -> mapper.apply(type.cast(error)));
+    }
+}
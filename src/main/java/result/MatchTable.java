@@ -0,0 +1,217 @@
+package result;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A precompiled set of {@link MatchArm}s that can be reused across many matches.
+ * The arms are split into Ok and Err arms when the table is built,
+ * and arms created with {@link MatchArm#okay} or {@link MatchArm#error} are looked up by value
+ * instead of being tested one at a time.
+ * Arms created with {@link MatchArm#errType} are looked up by the error's class, the first matching arm
+ * for each class is found once and cached in a {@link ClassValue}.
+ * As with {@link Result#match(Function, Collection)}, the first arm (in the given order) that matches wins.
+ * Like the clauses of a {@code try} statement, a class arm can't come after an arm for one of its superclasses,
+ * so the arm chosen for an error is always the most specific one.
+ *
+ * @param <T> The Ok type of the results being matched.
+ * @param <E> The Err type of the results being matched.
+ * @param <U> The return type of the arms.
+ *
+ * @author Alan Teesdale
+ */
+public final class MatchTable<T, E, U> {
+    private final Arms<T, U> okArms;
+    private final Arms<E, U> errArms;
+
+    private MatchTable(Collection<? extends MatchArm<T, E, U>> matchArms) {
+        List<Predicate<T>> okPredicates = new ArrayList<>();
+        List<Function<T, U>> okMappers = new ArrayList<>();
+        List<Predicate<E>> errPredicates = new ArrayList<>();
+        List<Function<E, U>> errMappers = new ArrayList<>();
+        for (MatchArm<T, E, U> arm : matchArms) {
+            if (arm instanceof OkArm<T, E, U> o) {
+                okPredicates.add(o.shouldMap());
+                okMappers.add(o.mapper());
+            } else if (arm instanceof ErrArm<T, E, U> e) {
+                errPredicates.add(e.shouldMap());
+                errMappers.add(e.mapper());
+            } else {
+                throw new NullPointerException("Match arms cannot be null");
+            }
+        }
+        this.okArms = new Arms<>(okPredicates, okMappers);
+        this.errArms = new Arms<>(errPredicates, errMappers);
+    }
+
+    /**
+     * Build a match table from the given arms.
+     *
+     * @param matchArms The MatchArms, can be {@link OkArm} or {@link ErrArm}
+     *
+     * @return A table which can be used to match any number of results.
+     *
+     * @throws IllegalArgumentException if a class arm comes after an arm for one of its superclasses.
+     */
+    @SafeVarargs
+    public static <T, E, U> MatchTable<T, E, U> of(MatchArm<T, E, U>... matchArms) {
+        // copied element by element, so the varargs array is never passed on or kept
+        List<MatchArm<T, E, U>> arms = new ArrayList<>(matchArms.length);
+        for (MatchArm<T, E, U> arm : matchArms) {
+            arms.add(arm);
+        }
+        return new MatchTable<>(arms);
+    }
+
+    /**
+     * Build a match table from the given arms.
+     *
+     * @param matchArms The MatchArms, can be {@link OkArm} or {@link ErrArm}
+     *
+     * @return A table which can be used to match any number of results.
+     *
+     * @throws IllegalArgumentException if a class arm comes after an arm for one of its superclasses.
+     */
+    public static <T, E, U> MatchTable<T, E, U> of(Collection<? extends MatchArm<T, E, U>> matchArms) {
+        return new MatchTable<>(Objects.requireNonNull(matchArms));
+    }
+
+    /**
+     * Match the result against this table, see {@link Result#match(Function, Collection)}.
+     *
+     * @param result     The result to match.
+     * @param defaultArm The catchall arm
+     *
+     * @return a U given by the first matching arm, or the default arm if none match.
+     */
+    public U match(Result<T, E> result, Function<Result<T, E>, U> defaultArm) {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.outcome(ResultListener.Operation.MATCH, result);
+        }
+        if (result.isOk()) {
+            T value = result.get();
+            int arm = okArms.find(value);
+            return arm < 0 ? defaultArm.apply(result) : okArms.apply(arm, value);
+        }
+        E error = result.getError();
+        int arm = errArms.find(error);
+        return arm < 0 ? defaultArm.apply(result) : errArms.apply(arm, error);
+    }
+
+    /**
+     * Match the result against this table, see {@link Result#match(Function, Function, Collection)}.
+     *
+     * @param result     The result to match.
+     * @param defaultOk  The catchall ok match arm
+     * @param defaultErr The catchall err match arm
+     *
+     * @return a U given by the first matching arm, or the relevant default arm if none match.
+     */
+    public U match(Result<T, E> result, Function<T, U> defaultOk, Function<E, U> defaultErr) {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.outcome(ResultListener.Operation.MATCH, result);
+        }
+        if (result.isOk()) {
+            T value = result.get();
+            int arm = okArms.find(value);
+            return arm < 0 ? defaultOk.apply(value) : okArms.apply(arm, value);
+        }
+        E error = result.getError();
+        int arm = errArms.find(error);
+        return arm < 0 ? defaultErr.apply(error) : errArms.apply(arm, error);
+    }
+
+    /**
+     * The arms for one variant.
+     * Equality arms are stored in a hash index keyed by their value (first declaration wins),
+     * class arms are found through a per-class cache of the first one the class is an instance of,
+     * every other arm is kept in declaration order and only tested if it comes before the indexed hit.
+     */
+    private static final class Arms<V, U> {
+        private static final int NONE = Integer.MAX_VALUE;
+
+        private final Predicate<V>[] predicates;
+        private final Function<V, U>[] mappers;
+        private final int[] scanned;
+        private final Map<Object, Integer> index = new HashMap<>();
+        private final ClassValue<Integer> typeIndex;
+
+        @SuppressWarnings("unchecked")
+        Arms(List<Predicate<V>> predicates, List<Function<V, U>> mappers) {
+            this.predicates = predicates.toArray(Predicate[]::new);
+            this.mappers = mappers.toArray(Function[]::new);
+            int[] scanned = new int[this.predicates.length];
+            int[] typed = new int[this.predicates.length];
+            int count = 0;
+            int typeCount = 0;
+            for (int i = 0; i < this.predicates.length; i++) {
+                if (this.predicates[i] instanceof EqualsPredicate<V> eq && eq.value() != null) {
+                    index.putIfAbsent(eq.value(), i);
+                } else if (this.predicates[i] instanceof InstancePredicate<V> instance) {
+                    checkReachable(instance.type(), typed, typeCount);
+                    typed[typeCount++] = i;
+                } else {
+                    scanned[count++] = i;
+                }
+            }
+            this.scanned = Arrays.copyOf(scanned, count);
+            this.typeIndex = typeCount == 0 ? null : new TypeIndex(Arrays.copyOf(typed, typeCount));
+        }
+
+        /**
+         * @return the position of the first arm matching the value, or -1 if none match.
+         */
+        int find(V value) {
+            int hit = index.isEmpty() ? NONE : index.getOrDefault(value, NONE);
+            if (typeIndex != null && value != null) {
+                hit = Math.min(hit, typeIndex.get(value.getClass()));
+            }
+            for (int i : scanned) {
+                if (i > hit) {
+                    break;
+                }
+                if (predicates[i].test(value)) {
+                    return i;
+                }
+            }
+            return hit == NONE ? -1 : hit;
+        }
+
+        U apply(int arm, V value) {
+            return mappers[arm].apply(value);
+        }
+
+        private void checkReachable(Class<?> type, int[] typed, int typeCount) {
+            for (int j = 0; j < typeCount; j++) {
+                Class<?> earlier = ((InstancePredicate<V>) predicates[typed[j]]).type();
+                if (earlier.isAssignableFrom(type)) {
+                    throw new IllegalArgumentException(
+                            "The arm for " + type.getName() + " can never match, an earlier arm matches " + earlier.getName()
+                    );
+                }
+            }
+        }
+
+        /**
+         * The position of the first class arm each class is an instance of, or {@link #NONE}.
+         */
+        private final class TypeIndex extends ClassValue<Integer> {
+            private final int[] typed;
+
+            private TypeIndex(int[] typed) {
+                this.typed = typed;
+            }
+
+            @Override
+            protected Integer computeValue(Class<?> type) {
+                for (int i : typed) {
+                    if (((InstancePredicate<V>) predicates[i]).type().isAssignableFrom(type)) {
+                        return i;
+                    }
+                }
+                return NONE;
+            }
+        }
+    }
+}
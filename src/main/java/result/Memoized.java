@@ -0,0 +1,37 @@
+package result;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A supplier which runs a {@link FallibleSupplier} the first time it is asked and keeps the result,
+ * see {@link Result#memoize(FallibleSupplier)}.
+ * Concurrent first calls wait on one run of the function rather than running it again.
+ *
+ * @author Alan Teesdale
+ */
+final class Memoized<T> implements Supplier<Result<T, Throwable>> {
+    private FallibleSupplier<T> function;
+    private volatile Result<T, Throwable> result;
+
+    Memoized(FallibleSupplier<T> function) {
+        this.function = Objects.requireNonNull(function);
+    }
+
+    @Override
+    public Result<T, Throwable> get() {
+        Result<T, Throwable> result = this.result;
+        if (result == null) {
+            synchronized (this) {
+                result = this.result;
+                if (result == null) {
+                    result = Result.fromFunction(function);
+                    this.result = result;
+                    // Let the function (and anything it captured) be collected
+                    function = null;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,465 @@
+package result;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * A batch of numeric results stored outside the Java heap, for validation runs too large for a {@link LongResultBatch}.
+ * Each result is a bit in a packed tag bitmap (set for Ok) and an 8 byte slot in a value column,
+ * holding the long (or the bits of the double) of an Ok result, or the numeric error code of an Err.
+ * A batch doesn't record which kind of value it holds, so values appended with {@link #appendOk(double)}
+ * must be read back with the double methods ({@link #getAsDouble}, {@link #getDouble}, {@link #sumAsDouble}),
+ * the long methods return their raw bits.
+ * The garbage collector only ever sees a handful of buffer objects, however many results there are.
+ * <p>
+ * A batch can live in direct memory ({@link #allocate}) or in a memory-mapped file ({@link #create}),
+ * which can be reopened read-only later with {@link #open} for inspection.
+ * Rows are split into chunks of {@code 2^27} so a batch can hold more than a single buffer can address.
+ * The file is a 32 byte header (magic, version, size, capacity, chunk bits)
+ * followed by each chunk's tag words then its values, all little-endian.
+ * <p>
+ * Results are appended by a single writer, reads are safe from any thread once the writes are visible to it.
+ * <p>
+ * This is built on {@link ByteBuffer}s rather than the Foreign Memory API, which is only final from Java 22,
+ * so it comes with their limits:
+ * <ul>
+ *     <li>Direct batches count against {@code -XX:MaxDirectMemorySize} (by default the maximum heap size),
+ *         so a batch of billions of rows should be memory-mapped with {@link #create} instead.</li>
+ *     <li>Closing a batch can't free its memory straight away. {@link #close} writes a mapped batch
+ *         through to its file and lets go of the buffers, the memory is then released (and a file unmapped)
+ *         when the garbage collector clears them. A closed file may stay mapped until then,
+ *         which on Windows stops it being deleted.</li>
+ * </ul>
+ * A batch must not be closed while other threads are still reading it.
+ *
+ * @author Alan Teesdale
+ */
+public final class OffHeapResultBatch implements AutoCloseable {
+    static final int MAGIC = 0x52534c54;
+    static final int VERSION = 1;
+    static final int HEADER = 32;
+    static final int CHUNK_BITS = 27;
+
+    private ByteBuffer header;
+    private ByteBuffer[] tags;
+    private ByteBuffer[] values;
+    private final long capacity;
+    private final int chunkBits;
+    private long size;
+    private boolean closed;
+
+    private OffHeapResultBatch(ByteBuffer header, ByteBuffer[] tags, ByteBuffer[] values, long capacity, int chunkBits, long size) {
+        this.header = header;
+        this.tags = tags;
+        this.values = values;
+        this.capacity = capacity;
+        this.chunkBits = chunkBits;
+        this.size = size;
+    }
+
+    /**
+     * Create an empty batch in direct memory.
+     *
+     * @param capacity The maximum number of results.
+     *
+     * @return The batch.
+     */
+    public static OffHeapResultBatch allocate(long capacity) {
+        return allocate(capacity, CHUNK_BITS);
+    }
+
+    static OffHeapResultBatch allocate(long capacity, int chunkBits) {
+        checkCapacity(capacity);
+        int chunks = chunkCount(capacity, chunkBits);
+        ByteBuffer[] tags = new ByteBuffer[chunks];
+        ByteBuffer[] values = new ByteBuffer[chunks];
+        for (int c = 0; c < chunks; c++) {
+            long rows = chunkRows(capacity, chunkBits, c);
+            tags[c] = ByteBuffer.allocateDirect(tagBytes(rows)).order(ByteOrder.LITTLE_ENDIAN);
+            values[c] = ByteBuffer.allocateDirect((int) (rows * Long.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        ByteBuffer header = ByteBuffer.allocateDirect(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        return initialise(header, tags, values, capacity, chunkBits);
+    }
+
+    /**
+     * Create an empty batch in a memory-mapped file, replacing the file if it exists.
+     *
+     * @param file     The file to map.
+     * @param capacity The maximum number of results.
+     *
+     * @return The batch.
+     *
+     * @throws IOException if the file can't be created or mapped.
+     */
+    public static OffHeapResultBatch create(Path file, long capacity) throws IOException {
+        return create(file, capacity, CHUNK_BITS);
+    }
+
+    static OffHeapResultBatch create(Path file, long capacity, int chunkBits) throws IOException {
+        checkCapacity(capacity);
+        try (FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        )) {
+            ByteBuffer[] tags = new ByteBuffer[chunkCount(capacity, chunkBits)];
+            ByteBuffer[] values = new ByteBuffer[tags.length];
+            ByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, capacity, chunkBits, tags, values);
+            return initialise(header, tags, values, capacity, chunkBits);
+        }
+    }
+
+    /**
+     * Open a batch written by {@link #create} for reading.
+     *
+     * @param file The file to map.
+     *
+     * @return The batch, which cannot be appended to.
+     *
+     * @throws IOException if the file can't be mapped or isn't a result batch.
+     */
+    public static OffHeapResultBatch open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a result batch: " + file);
+            }
+            long size = header.getLong(8);
+            long capacity = header.getLong(16);
+            int chunkBits = header.getInt(24);
+            ByteBuffer[] tags = new ByteBuffer[chunkCount(capacity, chunkBits)];
+            ByteBuffer[] values = new ByteBuffer[tags.length];
+            map(channel, FileChannel.MapMode.READ_ONLY, capacity, chunkBits, tags, values);
+            return new OffHeapResultBatch(header, tags, values, capacity, chunkBits, size);
+        }
+    }
+
+    /**
+     * @return The number of results in the batch.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return The maximum number of results the batch can hold.
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Append an Ok result.
+     *
+     * @param value The value of the result.
+     *
+     * @throws IllegalStateException if the batch is full.
+     */
+    public void appendOk(long value) {
+        append(true, value);
+    }
+
+    /**
+     * Append an Ok result.
+     *
+     * @param value The value of the result.
+     *
+     * @throws IllegalStateException if the batch is full.
+     */
+    public void appendOk(double value) {
+        append(true, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Append an Err result.
+     *
+     * @param errorCode The error code of the result.
+     *
+     * @throws IllegalStateException if the batch is full.
+     */
+    public void appendErr(long errorCode) {
+        append(false, errorCode);
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return true if the result at the index is Ok.
+     */
+    public boolean isOk(long index) {
+        ensureOpen();
+        Objects.checkIndex(index, size);
+        int row = row(index);
+        return (tags[chunk(index)].getLong((row >>> 6) * Long.BYTES) & (1L << row)) != 0;
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return The value of the Ok result at the index.
+     *
+     * @throws UnwrapException if the result is an Err.
+     */
+    public long getAsLong(long index) throws UnwrapException {
+        if (!isOk(index)) {
+            throw UnwrapException.ofErr(slot(index));
+        }
+        return slot(index);
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return The value of the Ok result at the index, stored with {@link #appendOk(double)}.
+     *
+     * @throws UnwrapException if the result is an Err.
+     */
+    public double getAsDouble(long index) throws UnwrapException {
+        return Double.longBitsToDouble(getAsLong(index));
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return The error code of the Err result at the index.
+     *
+     * @throws UnwrapException if the result is Ok.
+     */
+    public long getErrorCode(long index) throws UnwrapException {
+        if (isOk(index)) {
+            throw UnwrapException.ofOk(get(index));
+        }
+        return slot(index);
+    }
+
+    /**
+     * Get a result stored with {@link #appendOk(long)}.
+     * For a value stored with {@link #appendOk(double)} this gives the raw bits of the double, use {@link #getDouble}.
+     *
+     * @param index The index of the result.
+     *
+     * @return The result at the index, created on the heap.
+     */
+    public LongResult<Long> get(long index) {
+        return isOk(index) ? LongResult.ok(slot(index)) : LongResult.err(slot(index));
+    }
+
+    /**
+     * Get a result stored with {@link #appendOk(double)}.
+     *
+     * @param index The index of the result.
+     *
+     * @return The result at the index, created on the heap.
+     */
+    public DoubleResult<Long> getDouble(long index) {
+        return isOk(index) ? DoubleResult.ok(Double.longBitsToDouble(slot(index))) : DoubleResult.err(slot(index));
+    }
+
+    /**
+     * @return The number of Ok results, counted from the tag bitmap alone.
+     */
+    public long okCount() {
+        ensureOpen();
+        long count = 0;
+        for (int c = 0; c < tags.length; c++) {
+            long rows = Math.min(size - ((long) c << chunkBits), 1L << chunkBits);
+            if (rows <= 0) {
+                break;
+            }
+            int words = (int) (rows >>> 6);
+            ByteBuffer chunk = tags[c];
+            for (int w = 0; w < words; w++) {
+                count += Long.bitCount(chunk.getLong(w * Long.BYTES));
+            }
+            int tail = (int) (rows & 63);
+            if (tail != 0) {
+                count += Long.bitCount(chunk.getLong(words * Long.BYTES) & ((1L << tail) - 1));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of Err results.
+     */
+    public long errCount() {
+        return size - okCount();
+    }
+
+    /**
+     * @return The sum of the Ok values, stored with {@link #appendOk(long)}.
+     */
+    public long sumAsLong() {
+        long[] sum = {0};
+        forEachOk(value -> sum[0] += value);
+        return sum[0];
+    }
+
+    /**
+     * @return The sum of the Ok values, stored with {@link #appendOk(double)}.
+     */
+    public double sumAsDouble() {
+        double[] sum = {0};
+        forEachOk(value -> sum[0] += Double.longBitsToDouble(value));
+        return sum[0];
+    }
+
+    /**
+     * Run the action on the raw 8 byte slot of every Ok result, in order,
+     * only reading the slots whose bit is set in the tag bitmap.
+     * Use {@link Double#longBitsToDouble(long)} for values stored with {@link #appendOk(double)}.
+     *
+     * @param action The action to run on each value.
+     */
+    public void forEachOk(LongConsumer action) {
+        ensureOpen();
+        for (int c = 0; c < tags.length; c++) {
+            long rows = Math.min(size - ((long) c << chunkBits), 1L << chunkBits);
+            if (rows <= 0) {
+                break;
+            }
+            ByteBuffer chunkTags = tags[c];
+            ByteBuffer chunkValues = values[c];
+            int words = (int) ((rows + 63) >>> 6);
+            for (int w = 0; w < words; w++) {
+                long bits = chunkTags.getLong(w * Long.BYTES);
+                while (bits != 0) {
+                    int row = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    action.accept(chunkValues.getLong(row * Long.BYTES));
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write any changes to a memory-mapped batch through to its file, does nothing for a direct batch.
+     */
+    public void force() {
+        ensureOpen();
+        if (header instanceof MappedByteBuffer mapped && !mapped.isReadOnly()) {
+            for (int c = 0; c < tags.length; c++) {
+                ((MappedByteBuffer) tags[c]).force();
+                ((MappedByteBuffer) values[c]).force();
+            }
+            mapped.force();
+        }
+    }
+
+    private void append(boolean ok, long slot) {
+        ensureOpen();
+        if (header.isReadOnly()) {
+            throw new IllegalStateException("Result batch is read only");
+        }
+        if (size == capacity) {
+            throw new IllegalStateException("Result batch is full: " + capacity);
+        }
+        long index = size;
+        int chunk = chunk(index);
+        int row = row(index);
+        values[chunk].putLong(row * Long.BYTES, slot);
+        if (ok) {
+            int word = (row >>> 6) * Long.BYTES;
+            tags[chunk].putLong(word, tags[chunk].getLong(word) | (1L << row));
+        }
+        size = index + 1;
+        header.putLong(8, size);
+    }
+
+    /**
+     * Write a mapped batch through to its file and let go of its buffers, see the class documentation
+     * for when the memory is actually released. Closing a closed batch does nothing.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        force();
+        closed = true;
+        header = null;
+        tags = null;
+        values = null;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Result batch is closed");
+        }
+    }
+
+    private long slot(long index) {
+        return values[chunk(index)].getLong(row(index) * Long.BYTES);
+    }
+
+    private int chunk(long index) {
+        return (int) (index >>> chunkBits);
+    }
+
+    private int row(long index) {
+        return (int) (index & ((1L << chunkBits) - 1));
+    }
+
+    private static OffHeapResultBatch initialise(
+            ByteBuffer header,
+            ByteBuffer[] tags,
+            ByteBuffer[] values,
+            long capacity,
+            int chunkBits
+    ) {
+        header.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, 0).putLong(16, capacity).putInt(24, chunkBits);
+        return new OffHeapResultBatch(header, tags, values, capacity, chunkBits, 0);
+    }
+
+    /**
+     * Map the header and every chunk of a file holding the given capacity.
+     */
+    private static ByteBuffer map(
+            FileChannel channel,
+            FileChannel.MapMode mode,
+            long capacity,
+            int chunkBits,
+            ByteBuffer[] tags,
+            ByteBuffer[] values
+    ) throws IOException {
+        ByteBuffer header = channel.map(mode, 0, HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        long position = HEADER;
+        for (int c = 0; c < tags.length; c++) {
+            long rows = chunkRows(capacity, chunkBits, c);
+            int tagBytes = tagBytes(rows);
+            tags[c] = channel.map(mode, position, tagBytes).order(ByteOrder.LITTLE_ENDIAN);
+            position += tagBytes;
+            values[c] = channel.map(mode, position, rows * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            position += rows * Long.BYTES;
+        }
+        return header;
+    }
+
+    private static int chunkCount(long capacity, int chunkBits) {
+        return (int) ((capacity + (1L << chunkBits) - 1) >>> chunkBits);
+    }
+
+    private static long chunkRows(long capacity, int chunkBits, int chunk) {
+        return Math.min(1L << chunkBits, capacity - ((long) chunk << chunkBits));
+    }
+
+    private static int tagBytes(long rows) {
+        return (int) ((rows + 63) >>> 6) * Long.BYTES;
+    }
+
+    private static void checkCapacity(long capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative: " + capacity);
+        }
+    }
+}
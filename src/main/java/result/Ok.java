@@ -16,14 +16,32 @@ import java.util.function.Supplier;
  * @author Alan Teesdale (300652164)
  */
 record Ok<T, E>(T value) implements Result<T, E> {
+    /**
+     * The shared Ok result returned by {@link Result#fromFunction(FallibleRunnable)}.
+     */
+    private static final Ok<?, ?> VOID = new Ok<>(null);
+
+    @SuppressWarnings("unchecked")
+    static <E> Ok<Void, E> ofVoid() {
+        return (Ok<Void, E>) VOID;
+    }
+
+    /**
+     * Read back a serialized Ok, where a null value can only have come from {@link #ofVoid()}.
+     */
+    @SuppressWarnings("unchecked")
+    static <T, E> Result<T, E> ofDecoded(T value) {
+        return value == null ? (Result<T, E>) VOID : Result.ok(value);
+    }
+
     @Override
-    public T get() throws RuntimeException {
+    public T get() {
         return value;
     }
 
     @Override
-    public E getError() throws NullPointerException {
-        throw new NullPointerException(this + ": Is of the Ok Variant");
+    public E getError() throws UnwrapException {
+        throw UnwrapException.ofOk(this);
     }
 
     @Override
@@ -98,6 +116,9 @@ record Ok<T, E>(T value) implements Result<T, E> {
 
 	@Override
 	public final <U> U match(Function<Result<T, E>, U> defaultArm, Collection<MatchArm<T, E, U>> matchArms) {
+		if (Instrumentation.ENABLED) {
+			Instrumentation.ok(ResultListener.Operation.MATCH);
+		}
 		for (MatchArm<T, E, U> arm : matchArms) {
 			if (arm instanceof OkArm<T, E, U> e && e.shouldMap().test(this.value)) {
 				return e.mapper().apply(this.value);
@@ -108,6 +129,9 @@ record Ok<T, E>(T value) implements Result<T, E> {
 
 	@Override
 	public <U> U match(Function<T, U> defaultOk, Function<E, U> defaultErr, Collection<MatchArm<T, E, U>> matchArms) {
+		if (Instrumentation.ENABLED) {
+			Instrumentation.ok(ResultListener.Operation.MATCH);
+		}
 		for (MatchArm<T, E, U> arm : matchArms) {
 			if (arm instanceof OkArm<T, E, U> e && e.shouldMap().test(this.value)) {
 				return e.mapper().apply(this.value);
@@ -120,9 +144,16 @@ record Ok<T, E>(T value) implements Result<T, E> {
 	@Override
 	public Result<T, E> filter(Predicate<? super T> predicate, Function<? super T, ? super E> toError) {
 		if (predicate.test(this.value)) {
+			if (Instrumentation.ENABLED) {
+				Instrumentation.ok(ResultListener.Operation.FILTER);
+			}
 			return this;
 		}
-		return (Result<T, E>) Result.err(toError.apply(this.value));
+		Result<T, E> rejected = (Result<T, E>) Result.err(toError.apply(this.value));
+		if (Instrumentation.ENABLED) {
+			Instrumentation.err(ResultListener.Operation.FILTER, rejected.getError());
+		}
+		return rejected;
 	}
 
 	@Override
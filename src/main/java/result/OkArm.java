@@ -0,0 +1,6 @@
+package result;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+record OkArm<T, E, U>(Predicate<T> shouldMap, Function<T, U> mapper) implements MatchArm<T, E, U> {}
@@ -0,0 +1,108 @@
+package result;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Maps a list to results on a {@link ForkJoinPool}, see {@link Result#parallelTraverse}.
+ * The list is split in halves until the chunks are small enough, and each chunk is mapped in order.
+ * The lowest index known to hold an error is shared between the tasks,
+ * any task (or the rest of a chunk) starting after it is skipped, as it can't change the outcome.
+ *
+ * @author Alan Teesdale
+ */
+// RecursiveAction is Serializable, but these tasks only live inside a single traversal and are never serialized
+@SuppressWarnings("serial")
+final class ParallelTraverse<A, T, E> extends RecursiveAction {
+    private static final int NO_ERROR = Integer.MAX_VALUE;
+
+    private final List<? extends A> elements;
+    private final Function<? super A, ? extends Result<? extends T, ? extends E>> mapper;
+    private final Object[] slots;
+    private final AtomicInteger firstError;
+    private final int threshold;
+    private final int from;
+    private final int to;
+
+    private ParallelTraverse(
+            List<? extends A> elements,
+            Function<? super A, ? extends Result<? extends T, ? extends E>> mapper,
+            Object[] slots,
+            AtomicInteger firstError,
+            int threshold,
+            int from,
+            int to
+    ) {
+        this.elements = elements;
+        this.mapper = mapper;
+        this.slots = slots;
+        this.firstError = firstError;
+        this.threshold = threshold;
+        this.from = from;
+        this.to = to;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, T, E> Result<List<T>, E> traverse(
+            List<? extends A> elements,
+            Function<? super A, ? extends Result<? extends T, ? extends E>> mapper,
+            ForkJoinPool pool
+    ) {
+        Objects.requireNonNull(mapper);
+        int size = elements.size();
+        Object[] slots = new Object[size];
+        AtomicInteger firstError = new AtomicInteger(NO_ERROR);
+        int threshold = Math.max(1, size / (pool.getParallelism() * 8));
+        pool.invoke(new ParallelTraverse<>(elements, mapper, slots, firstError, threshold, 0, size));
+
+        int error = firstError.get();
+        if (error != NO_ERROR) {
+            Result<?, ? extends E> failed = (Result<?, ? extends E>) slots[error];
+            return Result.err(failed.getError(), failed.context());
+        }
+        return Result.ok((List<T>) Collections.unmodifiableList(Arrays.asList(slots)));
+    }
+
+    @Override
+    protected void compute() {
+        if (from > firstError.get()) {
+            return;
+        }
+        if (to - from <= threshold) {
+            computeDirectly();
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(
+                new ParallelTraverse<>(elements, mapper, slots, firstError, threshold, from, middle),
+                new ParallelTraverse<>(elements, mapper, slots, firstError, threshold, middle, to)
+        );
+    }
+
+    private void computeDirectly() {
+        for (int i = from; i < to && i < firstError.get(); i++) {
+            Result<? extends T, ? extends E> result = mapper.apply(elements.get(i));
+            if (result.isOk()) {
+                slots[i] = result.get();
+            } else {
+                // the whole Err is kept, so its context can be carried over
+                slots[i] = result;
+                recordError(i);
+                return;
+            }
+        }
+    }
+
+    private void recordError(int index) {
+        int current = firstError.get();
+        while (index < current && !firstError.compareAndSet(current, index)) {
+            current = firstError.get();
+        }
+    }
+}
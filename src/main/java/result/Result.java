@@ -1,10 +1,15 @@
 package result;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * A result type containing either a value of type T or an error.
@@ -13,7 +18,7 @@ import java.util.function.Supplier;
  *
  * @author Alan Teesdale
  */
-public sealed interface Result<T, E> permits Err, Ok {
+public sealed interface Result<T, E> permits Err, ContextualErr, Ok {
 
     /**
      * Convert a method into a result.
@@ -24,14 +29,20 @@ public sealed interface Result<T, E> permits Err, Ok {
      * @return Convert the result of a function that could throw into a result.
      *     Which contains either the value or the error.
      *     (Immediately runs the provided function)
+     *     The thrown error is captured as is, it is not wrapped in another exception.
      */
     static <T> Result<T, Throwable> fromFunction(FallibleSupplier<T> function) {
         Objects.requireNonNull(function);
+        Result<T, Throwable> result;
         try {
-            return Result.ok(function.get());
+            result = Result.ok(function.getThrows());
         } catch (Throwable e) {
-            return Result.err(e.getCause());
+            result = Result.err(e);
         }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.outcome(ResultListener.Operation.FROM_FUNCTION, result);
+        }
+        return result;
     }
 
     /**
@@ -42,13 +53,190 @@ public sealed interface Result<T, E> permits Err, Ok {
      */
     static Result<Void, Throwable> fromFunction(FallibleRunnable runnable) {
         Objects.requireNonNull(runnable);
+        Result<Void, Throwable> result;
         try {
-            runnable.run();
-            // needed to bypass the null checks from result.of
-            return new Ok<>(null);
+            runnable.runThrows();
+            // shared instance, which also bypasses the null checks from result.of
+            result = Ok.ofVoid();
         } catch (Throwable e) {
-            return Result.err(e.getCause());
+            result = Result.err(e);
+        }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.outcome(ResultListener.Operation.FROM_FUNCTION, result);
         }
+        return result;
+    }
+
+    /**
+     * Run the suppliers concurrently, collecting all of their values, or the first error.
+     * Once a supplier fails, or the timeout passes, every supplier still running is cancelled (interrupted).
+     * On Java 21+ a virtual thread per task executor is a good fit for the executor.
+     *
+     * @param suppliers      The suppliers to run.
+     * @param executor       The executor to run the suppliers on.
+     * @param maxConcurrency The maximum number of suppliers to run at once.
+     * @param timeout        How long to wait for all the suppliers, the error is a
+     *                       {@link java.util.concurrent.TimeoutException} if it passes.
+     * @param <T> The return type of the suppliers.
+     *
+     * @return The values of the suppliers, in the same order as the suppliers, or the first error.
+     */
+    static <T> Result<List<T>, Throwable> all(
+            Collection<? extends FallibleSupplier<? extends T>> suppliers,
+            ExecutorService executor,
+            int maxConcurrency,
+            Duration timeout
+    ) {
+        return FanOut.all(suppliers, executor, maxConcurrency, timeout);
+    }
+
+    /**
+     * Run the suppliers concurrently, returning the first value to be successfully computed.
+     * Once a supplier succeeds, or the timeout passes, every supplier still running is cancelled (interrupted).
+     *
+     * @param suppliers      The suppliers to run.
+     * @param executor       The executor to run the suppliers on.
+     * @param maxConcurrency The maximum number of suppliers to run at once.
+     * @param timeout        How long to wait for a value, the error is a
+     *                       {@link java.util.concurrent.TimeoutException} if it passes.
+     * @param <T> The return type of the suppliers.
+     *
+     * @return The first value computed, or the error of the last supplier to fail if they all fail.
+     */
+    static <T> Result<T, Throwable> any(
+            Collection<? extends FallibleSupplier<? extends T>> suppliers,
+            ExecutorService executor,
+            int maxConcurrency,
+            Duration timeout
+    ) {
+        return FanOut.any(suppliers, executor, maxConcurrency, timeout);
+    }
+
+    /**
+     * Collect the values of the results, or every error if any of them failed.
+     * Unlike {@link #sequence(Stream)} every result is looked at, see {@link Validated} for combining results of
+     * different types.
+     *
+     * @param results The results to validate.
+     *
+     * @return Ok of every value, or Err of every error in order.
+     */
+    static <T, E> Result<List<T>, List<E>> validate(Collection<? extends Result<? extends T, ? extends E>> results) {
+        List<T> values = new ArrayList<>(results.size());
+        List<E> errors = null;
+        int remaining = results.size();
+        for (Result<? extends T, ? extends E> result : results) {
+            if (result.isOk()) {
+                if (errors == null) {
+                    values.add(result.get());
+                }
+            } else {
+                if (errors == null) {
+                    // At most every result from here on failed
+                    errors = new ArrayList<>(remaining);
+                }
+                errors.add(result.getError());
+            }
+            remaining--;
+        }
+        return errors == null ? ok(values) : err(errors);
+    }
+
+    /**
+     * Collect the values of a stream of results, or the first error.
+     * Stops pulling from the stream at the first error.
+     *
+     * @param results The results to collect.
+     *
+     * @return Ok of every value, or the first Err in the stream.
+     *
+     * @see ResultCollectors for collectors of results.
+     */
+    static <T, E> Result<List<T>, E> sequence(Stream<? extends Result<? extends T, ? extends E>> results) {
+        return ResultCollectors.traverse(results, Function.identity());
+    }
+
+    /**
+     * Map each element of a stream to a result, and collect the values, or the first error.
+     * Stops pulling from the stream (and running the mapper) at the first error.
+     *
+     * @param elements The elements to map.
+     * @param mapper   The function to map each element to a result.
+     *
+     * @return Ok of every mapped value, or the first Err given by the mapper.
+     */
+    static <A, T, E> Result<List<T>, E> traverse(
+            Stream<? extends A> elements,
+            Function<? super A, ? extends Result<? extends T, ? extends E>> mapper
+    ) {
+        return ResultCollectors.traverse(elements, mapper);
+    }
+
+    /**
+     * Map each element of a list to a result in parallel, and collect the values, or the first error.
+     * If several elements map to errors, the error of the element with the lowest index is returned,
+     * so the outcome is the same as {@link #traverse(Stream, Function)}.
+     * Once an error is known, elements after it are no longer mapped.
+     *
+     * @param elements The elements to map, should support fast random access.
+     * @param mapper   The function to map each element to a result.
+     * @param pool     The pool to run the mapping on.
+     *
+     * @return Ok of every mapped value (in order), or the Err of the first element to give one.
+     */
+    static <A, T, E> Result<List<T>, E> parallelTraverse(
+            List<? extends A> elements,
+            Function<? super A, ? extends Result<? extends T, ? extends E>> mapper,
+            ForkJoinPool pool
+    ) {
+        return ParallelTraverse.traverse(elements, mapper, pool);
+    }
+
+    /**
+     * Run the supplier once, the first time the returned supplier is called,
+     * and return that same result from then on. See {@link ResultCache} for keyed loading.
+     *
+     * @param function The function to run.
+     * @param <T> The return type of the function.
+     *
+     * @return A supplier of the memoized result of the function.
+     */
+    static <T> Supplier<Result<T, Throwable>> memoize(FallibleSupplier<T> function) {
+        return new Memoized<>(function);
+    }
+
+    /**
+     * Run the supplier, retrying it according to the policy while it fails.
+     * The calling thread waits between attempts, see {@link #retryAsync} to avoid that.
+     *
+     * @param function The function to run.
+     * @param policy   When and how often to retry.
+     * @param <T> The return type of the function.
+     *
+     * @return The value of the first successful attempt, otherwise the error of the last attempt
+     *     (or an {@link InterruptedException} if interrupted while waiting).
+     */
+    static <T> Result<T, Throwable> retry(FallibleSupplier<T> function, RetryPolicy policy) {
+        return Retry.retry(function, policy);
+    }
+
+    /**
+     * Run the supplier on the scheduler, retrying it according to the policy while it fails.
+     * Each retry is scheduled after its delay, so no thread waits between attempts.
+     *
+     * @param function  The function to run.
+     * @param policy    When and how often to retry.
+     * @param scheduler The scheduler to run the attempts on.
+     * @param <T> The return type of the function.
+     *
+     * @return An async result of the first successful attempt, otherwise the error of the last attempt.
+     */
+    static <T> AsyncResult<T, Throwable> retryAsync(
+            FallibleSupplier<T> function,
+            RetryPolicy policy,
+            ScheduledExecutorService scheduler
+    ) {
+        return Retry.retryAsync(function, policy, scheduler);
     }
 
     /**
@@ -70,7 +258,33 @@ public sealed interface Result<T, E> permits Err, Ok {
      * @return The error result with a given supplier.
      */
     static <T, E> Result<T, E> err(E error) {
-        return new Err<>(Objects.requireNonNull(error));
+        Objects.requireNonNull(error);
+        return new Err<>(error);
+    }
+
+    /**
+     * Create an error variant of the result carrying a context, see {@link #withContext}.
+     *
+     * @param error   The error the result should hold.
+     * @param context The context of the error.
+     *
+     * @return The error result, a plain one if the context is empty.
+     */
+    static <T, E> Result<T, E> err(E error, ResultContext context) {
+        Objects.requireNonNull(error);
+        return context.isEmpty() ? new Err<>(error) : new ContextualErr<>(error, context);
+    }
+
+    /**
+     * Start a lazy pipeline of result operations, see {@link ResultPipeline}.
+     *
+     * @param <T> The type of the input value.
+     * @param <E> The Err type of the output.
+     *
+     * @return An empty pipeline, which steps can be added to.
+     */
+    static <T, E> ResultPipeline<T, T, E> lazy() {
+        return ResultPipeline.identity();
     }
 
     /**
@@ -79,18 +293,18 @@ public sealed interface Result<T, E> permits Err, Ok {
      *
      * @return The value if it exists or,
      *
-     * @throws RuntimeException if the value doesn't exist.
+     * @throws UnwrapException if the value doesn't exist.
      */
-    T get() throws RuntimeException;
+    T get() throws UnwrapException;
 
     /**
      * Get the Error if of the Err variant.
      *
      * @return The error that this result holds
      *
-     * @throws NoSuchElementException if the result has no error - if it is the Ok variant.
+     * @throws UnwrapException if the result has no error - if it is the Ok variant.
      */
-	 E getError() throws NoSuchElementException;
+	 E getError() throws UnwrapException;
 
     /**
      * Returns if the result is of the Ok var.
@@ -100,6 +314,30 @@ public sealed interface Result<T, E> permits Err, Ok {
     boolean isOk();
 
 
+    /**
+     * The metadata carried by an Err, such as a trace id. Ok results have no context.
+     * The context is carried forward by {@link #map}, {@link #flatMap}, {@link #mapError},
+     * {@link #or} and the error mappers, it is not part of equality.
+     *
+     * @return The context of this result, or {@link ResultContext#EMPTY}.
+     */
+    default ResultContext context() {
+        return ResultContext.EMPTY;
+    }
+
+    /**
+     * Attach an entry to the context of an Err, an Ok result is returned unchanged.
+     * Only one small node is allocated, the rest of the context is shared.
+     *
+     * @param key   The key of the entry.
+     * @param value The value of the entry.
+     *
+     * @return An Err of the same error with the entry added to its context, or this result if it's Ok.
+     */
+    default Result<T, E> withContext(String key, Object value) {
+        return isOk() ? this : new ContextualErr<>(getError(), ResultContext.of(key, value));
+    }
+
     /**
      * Returns if the result is of the Err variant.
      *
@@ -217,6 +455,8 @@ public sealed interface Result<T, E> permits Err, Ok {
      * @param <U>          the return type
      *
      * @return a U given by the match arms
+     *
+     * @see MatchTable for a reusable, precompiled set of match arms.
      */
     <U> U match(
 			Function<Result<T, E>, U> defaultArm,
@@ -229,7 +469,7 @@ public sealed interface Result<T, E> permits Err, Ok {
             Function<Result<T, E>, U> defaultArm,
             MatchArm<T, E, U>... matchArms
     ) {
-        return res.match(defaultArm, Arrays.stream(matchArms).toList());
+        return res.match(defaultArm, Arrays.asList(matchArms));
     }
 	
 	/**
@@ -255,7 +495,7 @@ public sealed interface Result<T, E> permits Err, Ok {
             Function<E, U> defaultErr,
             MatchArm<T, E, U>... matchArms
     ) {
-        return res.match(defaultOk, defaultErr, Arrays.stream(matchArms).toList());
+        return res.match(defaultOk, defaultErr, Arrays.asList(matchArms));
     }
 
     /**
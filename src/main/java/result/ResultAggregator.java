@@ -0,0 +1,316 @@
+package result;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Running statistics over a stream of results, kept in bounded memory however many results are added:
+ * the Ok and Err counts, the frequency of each error class, and a uniform random sample of the errors.
+ * <p>
+ * The class table tracks the {@code maxErrorClasses} most common classes the same way as {@link ResultMetrics}:
+ * a new class replaces the least common one and inherits its count, and the counts which can't be attributed
+ * to a tracked class for certain are untracked. Merging adds the counts of both tables before keeping the largest,
+ * so the merged classes don't depend on the order aggregators are merged in. The sample is a reservoir of at most
+ * {@code sampleSize} errors, every error seen has the same chance of being in it.
+ * <p>
+ * An aggregator is not thread safe. Give each worker or partition its own and {@link #merge} them,
+ * which is what {@link ResultCollectors#aggregating} does for parallel streams.
+ * For checkpoints, {@link #writeTo} writes the statistics and the sampled errors, never the results themselves.
+ *
+ * <pre>{@code
+ * ResultAggregator<Throwable> stats = new ResultAggregator<>(100, 64);
+ * records.forEach(record -> stats.add(Result.fromFunction(() -> parse(record))));
+ * stats.writeTo(checkpoint, errorCodec);
+ * }</pre>
+ *
+ * @param <E> The Err type of the results.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultAggregator<E> {
+    private static final int MAGIC = 0x52414747;
+    private static final int VERSION = 2;
+
+    private final int sampleSize;
+    private final int maxErrorClasses;
+    private final Function<? super E, String> classifier;
+    private final SplittableRandom random = new SplittableRandom();
+    private final HeavyHitters<String> errorClasses;
+    private final List<E> sample;
+    private long okCount;
+    private long errCount;
+
+    /**
+     * Create an aggregator which classifies errors by their class name.
+     *
+     * @param sampleSize      The maximum number of errors to sample.
+     * @param maxErrorClasses The maximum number of error classes to track.
+     */
+    public ResultAggregator(int sampleSize, int maxErrorClasses) {
+        this(sampleSize, maxErrorClasses, error -> error.getClass().getName());
+    }
+
+    /**
+     * Create an aggregator.
+     *
+     * @param sampleSize      The maximum number of errors to sample.
+     * @param maxErrorClasses The maximum number of error classes to track.
+     * @param classifier      Gives the class of an error, such as an error code.
+     */
+    public ResultAggregator(int sampleSize, int maxErrorClasses, Function<? super E, String> classifier) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("sampleSize cannot be negative: " + sampleSize);
+        }
+        if (maxErrorClasses < 0) {
+            throw new IllegalArgumentException("maxErrorClasses cannot be negative: " + maxErrorClasses);
+        }
+        this.sampleSize = sampleSize;
+        this.maxErrorClasses = maxErrorClasses;
+        this.errorClasses = new HeavyHitters<>(maxErrorClasses);
+        this.classifier = Objects.requireNonNull(classifier);
+        this.sample = new ArrayList<>(Math.min(sampleSize, 64));
+    }
+
+    /**
+     * @param result The result to count.
+     *
+     * @return This aggregator.
+     */
+    public ResultAggregator<E> add(Result<?, ? extends E> result) {
+        return result.isOk() ? addOk() : addErr(result.getError());
+    }
+
+    /**
+     * Count an Ok result.
+     *
+     * @return This aggregator.
+     */
+    public ResultAggregator<E> addOk() {
+        okCount++;
+        return this;
+    }
+
+    /**
+     * Count an Err result.
+     *
+     * @param error The error of the result.
+     *
+     * @return This aggregator.
+     */
+    public ResultAggregator<E> addErr(E error) {
+        Objects.requireNonNull(error);
+        errCount++;
+        errorClasses.add(Objects.requireNonNull(classifier.apply(error)));
+        if (sample.size() < sampleSize) {
+            sample.add(error);
+        } else if (sampleSize > 0) {
+            long slot = random.nextLong(errCount);
+            if (slot < sampleSize) {
+                sample.set((int) slot, error);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add the statistics of another aggregator to this one.
+     * The merged sample is a uniform sample of the errors seen by both,
+     * it may come up short if the other aggregator was created with a smaller sample size.
+     * The merged class table keeps the classes with the largest combined counts.
+     *
+     * @param other The aggregator to merge, which is left unchanged.
+     *
+     * @return This aggregator.
+     */
+    public ResultAggregator<E> merge(ResultAggregator<? extends E> other) {
+        mergeSample(other.sample, other.errCount);
+        okCount += other.okCount;
+        errCount += other.errCount;
+        errorClasses.merge(other.errorClasses);
+        return this;
+    }
+
+    /**
+     * @return The number of Ok results.
+     */
+    public long okCount() {
+        return okCount;
+    }
+
+    /**
+     * @return The number of Err results.
+     */
+    public long errCount() {
+        return errCount;
+    }
+
+    /**
+     * @return The number of results.
+     */
+    public long count() {
+        return okCount + errCount;
+    }
+
+    /**
+     * @return The number of errors which can't be attributed to a tracked class for certain.
+     */
+    public long untrackedErrors() {
+        return errorClasses.untracked();
+    }
+
+    /**
+     * @return The estimated number of errors of each tracked class, most common first.
+     */
+    public Map<String, Long> errorClasses() {
+        Map<String, Long> classes = new LinkedHashMap<>();
+        errorClasses.entries().forEach(e -> classes.put(e.key(), e.count()));
+        return Collections.unmodifiableMap(classes);
+    }
+
+    /**
+     * @return A copy of the sampled errors, in no particular order.
+     */
+    public List<E> sample() {
+        return List.copyOf(sample);
+    }
+
+    /**
+     * @param codec The codec for the sampled errors.
+     *
+     * @return The number of bytes {@link #writeTo} will write, or an upper bound if the codec's {@code sizeOf} is one.
+     */
+    public int sizeOf(BinaryCodec<E> codec) {
+        int size = 4 * Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES;
+        for (HeavyHitters.Entry<String> entry : errorClasses.entries()) {
+            size += Integer.BYTES + entry.key().getBytes(StandardCharsets.UTF_8).length + 2 * Long.BYTES;
+        }
+        for (E error : sample) {
+            size += Integer.BYTES + codec.sizeOf(error);
+        }
+        return size;
+    }
+
+    /**
+     * Write the statistics at the buffer's position, advancing it.
+     *
+     * @param out   The buffer to write to.
+     * @param codec The codec for the sampled errors.
+     */
+    public void writeTo(ByteBuffer out, BinaryCodec<E> codec) {
+        out.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(sampleSize)
+                .putInt(maxErrorClasses)
+                .putLong(okCount)
+                .putLong(errCount);
+        List<HeavyHitters.Entry<String>> classes = errorClasses.entries();
+        out.putInt(classes.size());
+        for (HeavyHitters.Entry<String> entry : classes) {
+            // the bytes actually encoded, which for a name with an unpaired surrogate is fewer than STRING.sizeOf
+            byte[] key = entry.key().getBytes(StandardCharsets.UTF_8);
+            out.putInt(key.length).put(key);
+            out.putLong(entry.count()).putLong(entry.error());
+        }
+        out.putInt(sample.size());
+        for (E error : sample) {
+            // the length is back-patched so it always matches the bytes the codec wrote
+            int start = out.position();
+            out.position(start + Integer.BYTES);
+            codec.write(error, out);
+            out.putInt(start, out.position() - start - Integer.BYTES);
+        }
+    }
+
+    /**
+     * Read statistics written by {@link #writeTo}, classifying errors by their class name,
+     * advancing the buffer's position past them.
+     *
+     * @param in    The buffer to read from.
+     * @param codec The codec for the sampled errors.
+     *
+     * @return An aggregator holding the statistics, which can continue counting.
+     *
+     * @throws IllegalArgumentException if the buffer doesn't hold an aggregator.
+     */
+    public static <E> ResultAggregator<E> readFrom(ByteBuffer in, BinaryCodec<E> codec) {
+        return readFrom(in, codec, error -> error.getClass().getName());
+    }
+
+    /**
+     * Read statistics written by {@link #writeTo}, advancing the buffer's position past them.
+     *
+     * @param in         The buffer to read from.
+     * @param codec      The codec for the sampled errors.
+     * @param classifier Gives the class of an error, it should be the one the statistics were gathered with.
+     *
+     * @return An aggregator holding the statistics, which can continue counting.
+     *
+     * @throws IllegalArgumentException if the buffer doesn't hold an aggregator.
+     */
+    public static <E> ResultAggregator<E> readFrom(ByteBuffer in, BinaryCodec<E> codec, Function<? super E, String> classifier) {
+        int magic = in.getInt();
+        int version = in.getInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IllegalArgumentException("Not a result aggregator, magic " + magic + " version " + version);
+        }
+        ResultAggregator<E> aggregator = new ResultAggregator<>(in.getInt(), in.getInt(), classifier);
+        aggregator.okCount = in.getLong();
+        aggregator.errCount = in.getLong();
+        aggregator.errorClasses.restoreTotal(aggregator.errCount);
+        int classes = in.getInt();
+        for (int i = 0; i < classes; i++) {
+            int length = in.getInt();
+            String name = BinaryCodec.STRING.read(in, in.position(), length);
+            in.position(in.position() + length);
+            aggregator.errorClasses.restore(name, in.getLong(), in.getLong());
+        }
+        int sampled = in.getInt();
+        for (int i = 0; i < sampled; i++) {
+            int length = in.getInt();
+            aggregator.sample.add(codec.read(in, in.position(), length));
+            in.position(in.position() + length);
+        }
+        return aggregator;
+    }
+
+    /**
+     * Replace the sample with one drawn from both samples without replacement,
+     * taking from each in proportion to the number of errors it stands for.
+     * Each sample is shuffled first, so any prefix of it is a uniform sample of its own errors.
+     */
+    private void mergeSample(List<? extends E> otherSample, long otherCount) {
+        List<E> mine = shuffled(sample);
+        List<E> theirs = shuffled(otherSample);
+        long remainingMine = errCount;
+        long remainingTheirs = otherCount;
+        int size = (int) Math.min(sampleSize, remainingMine + remainingTheirs);
+        sample.clear();
+        int nextMine = 0;
+        int nextTheirs = 0;
+        for (int i = 0; i < size; i++) {
+            if (random.nextLong(remainingMine + remainingTheirs) < remainingMine) {
+                if (nextMine == mine.size()) {
+                    break;
+                }
+                sample.add(mine.get(nextMine++));
+                remainingMine--;
+            } else {
+                if (nextTheirs == theirs.size()) {
+                    break;
+                }
+                sample.add(theirs.get(nextTheirs++));
+                remainingTheirs--;
+            }
+        }
+    }
+
+    private List<E> shuffled(List<? extends E> errors) {
+        List<E> copy = new ArrayList<>(errors);
+        for (int i = copy.size() - 1; i > 0; i--) {
+            Collections.swap(copy, i, random.nextInt(i + 1));
+        }
+        return copy;
+    }
+}
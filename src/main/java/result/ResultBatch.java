@@ -0,0 +1,362 @@
+package result;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * An immutable, columnar collection of results.
+ * Rather than one {@link Result} object per element, the batch keeps a bit per element for the variant,
+ * one dense array of the Ok values and one of the errors, so a million results cost three arrays instead
+ * of a million records. See {@link IntResultBatch}, {@link LongResultBatch} and {@link DoubleResultBatch}
+ * for batches which keep their values in a primitive array.
+ * <p>
+ * The bulk operations work a column at a time, {@link #map} only touches the values and shares the flags
+ * and errors with the original batch, {@link #mapError} does the opposite.
+ *
+ * @param <T> The Ok type of the results.
+ * @param <E> The Err type of the results.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultBatch<T, E> {
+    private final ResultFlags flags;
+    private final Object[] values;
+    private final Object[] errors;
+
+    ResultBatch(ResultFlags flags, Object[] values, Object[] errors) {
+        this.flags = flags;
+        this.values = values;
+        this.errors = errors;
+    }
+
+    /**
+     * Create a batch holding the given results, in order.
+     *
+     * @param results The results to hold.
+     *
+     * @return The batch.
+     */
+    public static <T, E> ResultBatch<T, E> from(Collection<? extends Result<? extends T, ? extends E>> results) {
+        Builder<T, E> builder = new Builder<>();
+        for (Result<? extends T, ? extends E> result : results) {
+            builder.add(result);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return A builder for a batch.
+     */
+    public static <T, E> Builder<T, E> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return The number of results in the batch.
+     */
+    public int size() {
+        return flags.size();
+    }
+
+    /**
+     * @return The number of Ok results in the batch.
+     */
+    public int okCount() {
+        return flags.okCount();
+    }
+
+    /**
+     * @return The number of Err results in the batch.
+     */
+    public int errCount() {
+        return flags.errCount();
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return true if the result at the index is Ok.
+     */
+    public boolean isOk(int index) {
+        return flags.isOk(index);
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return The result at the index, created on demand.
+     */
+    public Result<T, E> get(int index) {
+        return isOk(index) ? Ok.ofDecoded(value(flags.valueIndex(index))) : Result.err(error(flags.errorIndex(index)));
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return The value of the Ok result at the index.
+     *
+     * @throws UnwrapException if the result is an Err.
+     */
+    public T getOk(int index) throws UnwrapException {
+        if (!isOk(index)) {
+            throw UnwrapException.ofErr(error(flags.errorIndex(index)));
+        }
+        return value(flags.valueIndex(index));
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return The error of the Err result at the index.
+     *
+     * @throws UnwrapException if the result is Ok.
+     */
+    public E getError(int index) throws UnwrapException {
+        if (isOk(index)) {
+            throw UnwrapException.ofOk(get(index));
+        }
+        return error(flags.errorIndex(index));
+    }
+
+    /**
+     * @return The Ok values, in order.
+     */
+    public List<T> values() {
+        return column(values);
+    }
+
+    /**
+     * @return The errors, in order.
+     */
+    public List<E> errors() {
+        return column(errors);
+    }
+
+    /**
+     * Map every Ok value, see {@link Result#map(Function)}.
+     *
+     * @param mapper The function to apply to the values.
+     *
+     * @return A batch with the mapped values and the same errors.
+     */
+    public <U> ResultBatch<U, E> map(Function<? super T, ? extends U> mapper) {
+        Object[] mapped = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            mapped[i] = Objects.requireNonNull(mapper.apply(value(i)));
+        }
+        return new ResultBatch<>(flags, mapped, errors);
+    }
+
+    /**
+     * Map every Ok value to an int, into a batch which keeps the values in a primitive array.
+     *
+     * @param mapper The function to apply to the values.
+     *
+     * @return A batch with the mapped values and the same errors.
+     */
+    public IntResultBatch<E> mapToInt(ToIntFunction<? super T> mapper) {
+        int[] mapped = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            mapped[i] = mapper.applyAsInt(value(i));
+        }
+        return new IntResultBatch<>(flags, mapped, errors);
+    }
+
+    /**
+     * Map every Ok value to a long, into a batch which keeps the values in a primitive array.
+     *
+     * @param mapper The function to apply to the values.
+     *
+     * @return A batch with the mapped values and the same errors.
+     */
+    public LongResultBatch<E> mapToLong(ToLongFunction<? super T> mapper) {
+        long[] mapped = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            mapped[i] = mapper.applyAsLong(value(i));
+        }
+        return new LongResultBatch<>(flags, mapped, errors);
+    }
+
+    /**
+     * Map every Ok value to a double, into a batch which keeps the values in a primitive array.
+     *
+     * @param mapper The function to apply to the values.
+     *
+     * @return A batch with the mapped values and the same errors.
+     */
+    public DoubleResultBatch<E> mapToDouble(ToDoubleFunction<? super T> mapper) {
+        double[] mapped = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            mapped[i] = mapper.applyAsDouble(value(i));
+        }
+        return new DoubleResultBatch<>(flags, mapped, errors);
+    }
+
+    /**
+     * Map every error, see {@link Result#mapError(Function)}.
+     *
+     * @param mapper The function to apply to the errors.
+     *
+     * @return A batch with the same values and the mapped errors.
+     */
+    public <F> ResultBatch<T, F> mapError(Function<? super E, ? extends F> mapper) {
+        Object[] mapped = new Object[errors.length];
+        for (int i = 0; i < errors.length; i++) {
+            mapped[i] = Objects.requireNonNull(mapper.apply(error(i)));
+        }
+        return new ResultBatch<>(flags, values, mapped);
+    }
+
+    /**
+     * Turn every Ok value which fails the predicate into an error, see {@link Result#filter}.
+     *
+     * @param predicate The test for the values.
+     * @param toError   Creates the error for a value which fails the test.
+     *
+     * @return A batch where the failing values are errors, or this batch if every value passes.
+     */
+    public ResultBatch<T, E> filter(Predicate<? super T> predicate, Function<? super T, ? extends E> toError) {
+        boolean[] passed = new boolean[values.length];
+        int passCount = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (passed[i] = predicate.test(value(i))) {
+                passCount++;
+            }
+        }
+        if (passCount == values.length) {
+            return this;
+        }
+        ResultFlags.Builder newFlags = new ResultFlags.Builder(size());
+        Object[] newValues = new Object[passCount];
+        Object[] newErrors = new Object[size() - passCount];
+        int value = 0;
+        int error = 0;
+        int newValue = 0;
+        int newError = 0;
+        for (int i = 0; i < size(); i++) {
+            if (!isOk(i)) {
+                newErrors[newError++] = errors[error++];
+                newFlags.add(false);
+            } else if (passed[value]) {
+                newValues[newValue++] = values[value++];
+                newFlags.add(true);
+            } else {
+                newErrors[newError++] = Objects.requireNonNull(toError.apply(value(value++)));
+                newFlags.add(false);
+            }
+        }
+        return new ResultBatch<>(newFlags.build(), newValues, newErrors);
+    }
+
+    /**
+     * @param predicate The test for the values.
+     *
+     * @return The number of Ok values which pass the test.
+     */
+    public int count(Predicate<? super T> predicate) {
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (predicate.test(value(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return The results, created on demand.
+     */
+    public List<Result<T, E>> toList() {
+        return new AbstractList<>() {
+            @Override
+            public Result<T, E> get(int index) {
+                return ResultBatch.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return ResultBatch.this.size();
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private T value(int i) {
+        return (T) values[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private E error(int i) {
+        return (E) errors[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> List<V> column(Object[] column) {
+        return (List<V>) Collections.unmodifiableList(Arrays.asList(column));
+    }
+
+    /**
+     * Collects results into a {@link ResultBatch}.
+     */
+    public static final class Builder<T, E> {
+        private final ResultFlags.Builder flags = new ResultFlags.Builder();
+        private final List<Object> values = new ArrayList<>();
+        private final List<Object> errors = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * @param result The result to add.
+         *
+         * @return This builder.
+         */
+        public Builder<T, E> add(Result<? extends T, ? extends E> result) {
+            // the shared Void Ok holds null, so it can't go through addOk
+            return result.isOk() ? addValue(result.get()) : addErr(result.getError());
+        }
+
+        /**
+         * @param value The value of an Ok result to add.
+         *
+         * @return This builder.
+         */
+        public Builder<T, E> addOk(T value) {
+            return addValue(Objects.requireNonNull(value));
+        }
+
+        private Builder<T, E> addValue(T value) {
+            flags.add(true);
+            values.add(value);
+            return this;
+        }
+
+        /**
+         * @param error The error of an Err result to add.
+         *
+         * @return This builder.
+         */
+        public Builder<T, E> addErr(E error) {
+            Objects.requireNonNull(error);
+            flags.add(false);
+            errors.add(error);
+            return this;
+        }
+
+        /**
+         * @return A batch of the results added so far.
+         */
+        public ResultBatch<T, E> build() {
+            return new ResultBatch<>(flags.build(), values.toArray(), errors.toArray());
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package result;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A keyed cache of results from an expensive loader, for example config, DNS or schema lookups.
+ * Ok and Err results are kept for separate lengths of time, so a failure can be cached briefly
+ * (to stop every caller hammering a broken dependency) while a success is kept for longer.
+ * <p>
+ * Loads are single-flight: however many threads miss on a key at once, the loader runs once
+ * and every one of them gets its result.
+ * The cache holds about {@code maxSize} keys, split across lock-striped segments which each evict
+ * their least recently used loaded key when full. A key which is still loading is never evicted, so its load
+ * stays single-flight, and a segment whose keys are all loading can briefly hold more than its share.
+ * Locks are only held to look up and insert entries, never while loading.
+ *
+ * <pre>{@code
+ * ResultCache<String, InetAddress, Throwable> dns = new ResultCache<>(10_000, Duration.ofMinutes(5), Duration.ofSeconds(5));
+ * Result<InetAddress, Throwable> address = dns.get(host, h -> Result.fromFunction(() -> InetAddress.getByName(h)));
+ * }</pre>
+ *
+ * @param <K> The key type, which should have consistent equals and hashCode methods.
+ * @param <T> The Ok type of the cached results.
+ * @param <E> The Err type of the cached results.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultCache<K, T, E> {
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment<K, T, E>[] segments;
+    private final long okTtl;
+    private final long errTtl;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * Create a cache.
+     *
+     * @param maxSize The maximum number of keys to hold.
+     * @param okTtl   How long an Ok result is kept for.
+     * @param errTtl  How long an Err result is kept for, zero to only share it with callers waiting on the load.
+     */
+    public ResultCache(int maxSize, Duration okTtl, Duration errTtl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        if (okTtl.isNegative() || errTtl.isNegative()) {
+            throw new IllegalArgumentException("TTLs cannot be negative: " + okTtl + ", " + errTtl);
+        }
+        this.okTtl = okTtl.toNanos();
+        this.errTtl = errTtl.toNanos();
+        int count = Integer.highestOneBit(Math.min(MAX_SEGMENTS, maxSize));
+        @SuppressWarnings("unchecked")
+        Segment<K, T, E>[] segments = (Segment<K, T, E>[]) new Segment<?, ?, ?>[count];
+        this.segments = segments;
+        for (int i = 0; i < count; i++) {
+            // Spread the remainder so the capacities add up to exactly maxSize
+            segments[i] = new Segment<>(maxSize / count + (i < maxSize % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Get the cached result for the key, loading it if it is missing or has expired.
+     * If the loader throws, the exception is passed on to every caller waiting on the load and nothing is cached.
+     *
+     * @param key    The key to look up.
+     * @param loader Creates the result for a key.
+     *
+     * @return The cached or newly loaded result.
+     */
+    public Result<T, E> get(K key, Function<? super K, ? extends Result<T, E>> loader) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(loader);
+        Segment<K, T, E> segment = segmentFor(key);
+        Entry<T, E> entry;
+        Entry<T, E> loading = null;
+        synchronized (segment) {
+            entry = segment.map.get(key);
+            if (entry == null || entry.isExpired()) {
+                loading = entry = new Entry<>();
+                segment.map.put(key, entry);
+            }
+        }
+        if (loading == null) {
+            hits.increment();
+            return entry.join();
+        }
+        loads.increment();
+        try {
+            Result<T, E> result = Objects.requireNonNull(loader.apply(key), "loader returned null");
+            loading.complete(result, result.isOk() ? okTtl : errTtl);
+            return result;
+        } catch (RuntimeException | Error e) {
+            synchronized (segment) {
+                segment.map.remove(key, loading);
+            }
+            loading.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the cached result for the key if there is one, without loading it.
+     *
+     * @param key The key to look up.
+     *
+     * @return The cached result, or null if it is missing, expired or still loading.
+     */
+    public Result<T, E> getIfPresent(K key) {
+        Segment<K, T, E> segment = segmentFor(Objects.requireNonNull(key));
+        Entry<T, E> entry;
+        synchronized (segment) {
+            entry = segment.map.get(key);
+        }
+        return entry == null || !entry.future.isDone() || entry.isExpired() ? null : entry.join();
+    }
+
+    /**
+     * Remove the key, so the next lookup loads it again.
+     * Callers already waiting on a load still get its result.
+     *
+     * @param key The key to remove.
+     */
+    public void invalidate(K key) {
+        Segment<K, T, E> segment = segmentFor(Objects.requireNonNull(key));
+        synchronized (segment) {
+            segment.map.remove(key);
+        }
+    }
+
+    /**
+     * Remove every key.
+     */
+    public void invalidateAll() {
+        for (Segment<K, T, E> segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+            }
+        }
+    }
+
+    /**
+     * @return The number of keys held, including expired keys which have not been evicted yet.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, T, E> segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return The number of lookups served by a cached or already loading result.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of times the loader was run.
+     */
+    public long loads() {
+        return loads.sum();
+    }
+
+    private Segment<K, T, E> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * A least recently used map guarded by its own monitor, which only evicts loaded entries.
+     */
+    private static final class Segment<K, T, E> {
+        final LinkedHashMap<K, Entry<T, E>> map;
+
+        Segment(int capacity) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<T, E>> eldest) {
+                    if (size() > capacity) {
+                        // Walk from the least recently used entry, skipping those still loading
+                        Iterator<Entry<T, E>> entries = values().iterator();
+                        while (size() > capacity && entries.hasNext()) {
+                            if (entries.next().future.isDone()) {
+                                entries.remove();
+                            }
+                        }
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    /**
+     * A result which is loading or loaded, the expiry is only set once it has loaded.
+     */
+    private static final class Entry<T, E> {
+        final CompletableFuture<Result<T, E>> future = new CompletableFuture<>();
+        volatile long loadedAt;
+        volatile long ttl = -1;
+
+        void complete(Result<T, E> result, long ttl) {
+            this.loadedAt = System.nanoTime();
+            this.ttl = ttl;
+            future.complete(result);
+        }
+
+        boolean isExpired() {
+            long ttl = this.ttl;
+            return ttl >= 0 && System.nanoTime() - loadedAt >= ttl;
+        }
+
+        Result<T, E> join() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException r) {
+                    throw r;
+                }
+                if (e.getCause() instanceof Error r) {
+                    throw r;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package result;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compact binary format for results and lists of results, for sending them between services.
+ * A result is a tag byte ({@code 0} for Ok, {@code 1} for Err), a 4 byte payload length,
+ * then the payload written by the {@link BinaryCodec} for that variant.
+ * A list is a 4 byte count, a table of 4 byte offsets (from the start of the list) to each result,
+ * then the results, so any one of them can be found without reading the others, see {@link #view(ByteBuffer)}.
+ * <p>
+ * Values are read with absolute gets on the given buffer, never by copying it,
+ * and ints are written in the buffer's byte order, which must match on both sides.
+ * The codec works on {@link ByteBuffer}s because the Foreign Memory API is only an incubator module
+ * ({@code jdk.incubator.foreign}) on Java 17, a memory segment can be read through its {@code asByteBuffer()} view.
+ *
+ * <pre>{@code
+ * ResultCodec<Integer, String> codec = ResultCodec.of(BinaryCodec.INT, BinaryCodec.STRING);
+ * ByteBuffer buffer = ByteBuffer.allocateDirect(codec.sizeOfAll(results));
+ * codec.writeAll(results, buffer);
+ * }</pre>
+ *
+ * @param <T> The Ok type of the results.
+ * @param <E> The Err type of the results.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultCodec<T, E> {
+    static final byte OK = 0;
+    static final byte ERR = 1;
+    static final int HEADER = 1 + Integer.BYTES;
+
+    private final BinaryCodec<T> ok;
+    private final BinaryCodec<E> err;
+
+    private ResultCodec(BinaryCodec<T> ok, BinaryCodec<E> err) {
+        this.ok = Objects.requireNonNull(ok);
+        this.err = Objects.requireNonNull(err);
+    }
+
+    /**
+     * Create a codec from the codecs for each variant.
+     *
+     * @param ok  The codec for Ok values.
+     * @param err The codec for Err values.
+     *
+     * @return The result codec.
+     */
+    public static <T, E> ResultCodec<T, E> of(BinaryCodec<T> ok, BinaryCodec<E> err) {
+        return new ResultCodec<>(ok, err);
+    }
+
+    /**
+     * @param result The result to encode.
+     *
+     * @return The number of bytes {@link #write} will write for the result.
+     */
+    public int sizeOf(Result<T, E> result) {
+        return HEADER + (result.isOk() ? ok.sizeOf(result.get()) : err.sizeOf(result.getError()));
+    }
+
+    /**
+     * @param results The results to encode.
+     *
+     * @return The number of bytes {@link #writeAll} will write for the results.
+     */
+    public int sizeOfAll(List<? extends Result<T, E>> results) {
+        int size = Integer.BYTES * (1 + results.size());
+        for (Result<T, E> result : results) {
+            size += sizeOf(result);
+        }
+        return size;
+    }
+
+    /**
+     * Write the result at the buffer's position, advancing it.
+     *
+     * @param result The result to encode.
+     * @param out    The buffer to write to.
+     */
+    public void write(Result<T, E> result, ByteBuffer out) {
+        int start = out.position();
+        out.position(start + HEADER);
+        if (result.isOk()) {
+            out.put(start, OK);
+            ok.write(result.get(), out);
+        } else {
+            out.put(start, ERR);
+            err.write(result.getError(), out);
+        }
+        // Filled in afterwards, so the length is always what was actually written
+        out.putInt(start + 1, out.position() - start - HEADER);
+    }
+
+    /**
+     * Write the results at the buffer's position, advancing it.
+     *
+     * @param results The results to encode.
+     * @param out     The buffer to write to.
+     */
+    public void writeAll(List<? extends Result<T, E>> results, ByteBuffer out) {
+        int start = out.position();
+        int count = results.size();
+        out.putInt(count);
+        int table = out.position();
+        out.position(table + Integer.BYTES * count);
+        for (int i = 0; i < count; i++) {
+            out.putInt(table + Integer.BYTES * i, out.position() - start);
+            write(results.get(i), out);
+        }
+    }
+
+    /**
+     * Read a result at the buffer's position, advancing it.
+     *
+     * @param in The buffer to read from.
+     *
+     * @return The decoded result.
+     */
+    public Result<T, E> read(ByteBuffer in) {
+        int start = in.position();
+        Result<T, E> result = readAt(in, start);
+        in.position(start + HEADER + in.getInt(start + 1));
+        return result;
+    }
+
+    /**
+     * Read every result of a list at the buffer's position, advancing it.
+     *
+     * @param in The buffer to read from.
+     *
+     * @return The decoded results.
+     */
+    public List<Result<T, E>> readAll(ByteBuffer in) {
+        ResultView<T, E> view = view(in);
+        List<Result<T, E>> results = new ArrayList<>(view.size());
+        for (int i = 0; i < view.size(); i++) {
+            results.add(view.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * View the list at the buffer's position without decoding it, advancing the buffer past it.
+     * Each result is only decoded when it is asked for, and its variant can be checked without decoding it at all.
+     * The view reads from the given buffer, so the buffer must not be changed while the view is in use.
+     *
+     * @param in The buffer to read from.
+     *
+     * @return A lazy list of the encoded results.
+     */
+    public ResultView<T, E> view(ByteBuffer in) {
+        int start = in.position();
+        int count = in.getInt(start);
+        ResultView<T, E> view = new ResultView<>(this, in, start, count);
+        int end = start + Integer.BYTES * (1 + count);
+        if (count > 0) {
+            int last = view.offset(count - 1);
+            end = last + HEADER + in.getInt(last + 1);
+        }
+        in.position(end);
+        return view;
+    }
+
+    Result<T, E> readAt(ByteBuffer in, int offset) {
+        return switch (tagAt(in, offset)) {
+            case OK -> Ok.ofDecoded(okAt(in, offset));
+            default -> Result.err(errAt(in, offset));
+        };
+    }
+
+    T okAt(ByteBuffer in, int offset) {
+        return ok.read(in, offset + HEADER, in.getInt(offset + 1));
+    }
+
+    E errAt(ByteBuffer in, int offset) {
+        return err.read(in, offset + HEADER, in.getInt(offset + 1));
+    }
+
+    static byte tagAt(ByteBuffer in, int offset) {
+        byte tag = in.get(offset);
+        if (tag != OK && tag != ERR) {
+            throw new IllegalArgumentException("Unknown result tag " + tag + " at " + offset);
+        }
+        return tag;
+    }
+}
@@ -0,0 +1,226 @@
+package result;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * {@link Collector}s for streams of results, in the style of {@link java.util.stream.Collectors}.
+ * A collector can't stop the stream feeding it, so {@link #sequencing()} and {@link #traversing(Function)}
+ * only stop doing work after the first error.
+ * To actually stop pulling from the stream, use {@link Result#sequence(Stream)} or {@link Result#traverse(Stream, Function)}.
+ * An Err given by a collector keeps the {@link ResultContext} of the Err results it came from.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultCollectors {
+    private ResultCollectors() {}
+
+    /**
+     * The Ok values and errors of a group of results, in encounter order.
+     *
+     * @param values The values of the Ok results.
+     * @param errors The errors of the Err results.
+     */
+    public record Partition<T, E>(List<T> values, List<E> errors) {}
+
+    /**
+     * Collect the values of the results, or the first error.
+     *
+     * @return A collector giving Ok of every value, or the first Err encountered.
+     */
+    public static <T, E> Collector<Result<? extends T, ? extends E>, ?, Result<List<T>, E>> sequencing() {
+        return traversing(Function.identity());
+    }
+
+    /**
+     * Map each element to a result and collect the values, or the first error.
+     * The mapper is not run again after the first error.
+     *
+     * @param mapper The function to map each element to a result.
+     *
+     * @return A collector giving Ok of every mapped value, or the first Err encountered.
+     */
+    public static <A, T, E> Collector<A, ?, Result<List<T>, E>> traversing(
+            Function<? super A, ? extends Result<? extends T, ? extends E>> mapper
+    ) {
+        Objects.requireNonNull(mapper);
+        return Collector.of(
+                Sequence<T, E>::new,
+                (sequence, element) -> sequence.add(element, mapper),
+                Sequence::combine,
+                Sequence::toResult
+        );
+    }
+
+    /**
+     * Split the results into their values and errors in a single pass.
+     *
+     * @return A collector giving every value and every error.
+     */
+    public static <T, E> Collector<Result<? extends T, ? extends E>, ?, Partition<T, E>> partitioning() {
+        return Collector.of(
+                () -> new Partition<T, E>(new ArrayList<>(), new ArrayList<>()),
+                ResultCollectors::addTo,
+                (left, right) -> {
+                    left.values().addAll(right.values());
+                    left.errors().addAll(right.errors());
+                    return left;
+                }
+        );
+    }
+
+    /**
+     * Split the results into their values and errors,
+     * the lists are sized up front from the size of the collection.
+     *
+     * @param results The results to split.
+     *
+     * @return every value and every error.
+     */
+    public static <T, E> Partition<T, E> partition(Collection<? extends Result<? extends T, ? extends E>> results) {
+        Partition<T, E> partition = new Partition<>(new ArrayList<>(results.size()), new ArrayList<>());
+        for (Result<? extends T, ? extends E> result : results) {
+            addTo(partition, result);
+        }
+        return partition;
+    }
+
+    /**
+     * Collect the values of the results, or every error if there are any.
+     *
+     * @return A collector giving Ok of every value if there were no errors, otherwise Err of every error,
+     *     carrying the contexts of the Err results combined, with later entries taking precedence.
+     */
+    public static <T, E> Collector<Result<? extends T, ? extends E>, ?, Result<List<T>, List<E>>> collectingErrors() {
+        return Collector.of(
+                Errors<T, E>::new,
+                Errors::add,
+                Errors::combine,
+                Errors::toResult
+        );
+    }
+
+    /**
+     * Count the results into a {@link ResultAggregator}, keeping none of them,
+     * the aggregators of a parallel stream's partitions are merged.
+     *
+     * @param sampleSize      The maximum number of errors to sample.
+     * @param maxErrorClasses The maximum number of error classes to track.
+     *
+     * @return A collector giving the statistics of the results.
+     */
+    public static <E> Collector<Result<?, ? extends E>, ?, ResultAggregator<E>> aggregating(int sampleSize, int maxErrorClasses) {
+        return Collector.of(
+                () -> new ResultAggregator<E>(sampleSize, maxErrorClasses),
+                ResultAggregator::add,
+                ResultAggregator::merge,
+                Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+
+    private static <T, E> void addTo(Partition<T, E> partition, Result<? extends T, ? extends E> result) {
+        if (result.isOk()) {
+            partition.values().add(result.get());
+        } else {
+            partition.errors().add(result.getError());
+        }
+    }
+
+    /**
+     * Pull elements from the stream until the mapper gives an error.
+     */
+    static <A, T, E> Result<List<T>, E> traverse(
+            Stream<? extends A> stream,
+            Function<? super A, ? extends Result<? extends T, ? extends E>> mapper
+    ) {
+        Objects.requireNonNull(mapper);
+        Spliterator<? extends A> spliterator = stream.spliterator();
+        long size = spliterator.getExactSizeIfKnown();
+        Sequence<T, E> sequence = new Sequence<>(size < 0 || size > Integer.MAX_VALUE ? 10 : (int) size);
+        while (sequence.error == null) {
+            if (!spliterator.tryAdvance(element -> sequence.add(element, mapper))) {
+                break;
+            }
+        }
+        return sequence.toResult();
+    }
+
+    /**
+     * The values and errors so far, with the contexts of the errors combined in encounter order.
+     */
+    private static final class Errors<T, E> {
+        private final Partition<T, E> partition = new Partition<>(new ArrayList<>(), new ArrayList<>());
+        private ResultContext context = ResultContext.EMPTY;
+
+        void add(Result<? extends T, ? extends E> result) {
+            addTo(partition, result);
+            if (result.hasError()) {
+                context = context.withAll(result.context());
+            }
+        }
+
+        Errors<T, E> combine(Errors<T, E> right) {
+            partition.values().addAll(right.partition.values());
+            partition.errors().addAll(right.partition.errors());
+            context = context.withAll(right.context);
+            return this;
+        }
+
+        Result<List<T>, List<E>> toResult() {
+            return partition.errors().isEmpty()
+                    ? Result.ok(partition.values())
+                    : Result.err(partition.errors(), context);
+        }
+    }
+
+    /**
+     * The running state of a sequence, either the values so far or the first error and its context.
+     */
+    private static final class Sequence<T, E> {
+        private List<T> values;
+        private E error;
+        private ResultContext context = ResultContext.EMPTY;
+
+        Sequence() {
+            this(10);
+        }
+
+        Sequence(int capacity) {
+            this.values = new ArrayList<>(capacity);
+        }
+
+        <A> void add(A element, Function<? super A, ? extends Result<? extends T, ? extends E>> mapper) {
+            if (error != null) {
+                return;
+            }
+            Result<? extends T, ? extends E> result = mapper.apply(element);
+            if (result.isOk()) {
+                values.add(result.get());
+            } else {
+                error = result.getError();
+                context = result.context();
+                values = null;
+            }
+        }
+
+        Sequence<T, E> combine(Sequence<T, E> right) {
+            if (error == null) {
+                if (right.error == null) {
+                    values.addAll(right.values);
+                } else {
+                    error = right.error;
+                    context = right.context;
+                    values = null;
+                }
+            }
+            return this;
+        }
+
+        Result<List<T>, E> toResult() {
+            return error == null ? Result.ok(values) : Result.err(error, context);
+        }
+    }
+}
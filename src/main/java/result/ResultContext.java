@@ -0,0 +1,127 @@
+package result;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A small, immutable map of metadata carried by an Err, such as a trace id or the stage which failed,
+ * see {@link Result#withContext}.
+ * <p>
+ * Each context is one entry linked to the context it was added to, so adding an entry allocates a single node
+ * and shares the rest, and carrying a context to a new result copies nothing.
+ * Combining two non-empty contexts with {@link #withAll} copies every entry of the other context
+ * and shares only this one's. Lookups walk the entries,
+ * newest first, which is cheap for the handful of entries a context is meant to hold.
+ * A newer entry for a key hides any older one.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultContext {
+    /**
+     * The context with no entries.
+     */
+    public static final ResultContext EMPTY = new ResultContext(null, null, null);
+
+    private final String key;
+    private final Object value;
+    private final ResultContext parent;
+
+    private ResultContext(String key, Object value, ResultContext parent) {
+        this.key = key;
+        this.value = value;
+        this.parent = parent;
+    }
+
+    /**
+     * @param key   The key of the entry.
+     * @param value The value of the entry.
+     *
+     * @return A context with the single entry.
+     */
+    public static ResultContext of(String key, Object value) {
+        return EMPTY.with(key, value);
+    }
+
+    /**
+     * @param key   The key of the entry.
+     * @param value The value of the entry.
+     *
+     * @return A context with the entry added, sharing this context's entries.
+     */
+    public ResultContext with(String key, Object value) {
+        return new ResultContext(Objects.requireNonNull(key), Objects.requireNonNull(value), this);
+    }
+
+    /**
+     * Add the other context's entries, allocating a node for each of them on top of this context's.
+     *
+     * @param other The entries to add, which take precedence over this context's.
+     *
+     * @return A context with both contexts' entries, this context if the other is empty,
+     *         or the other if this is empty.
+     */
+    public ResultContext withAll(ResultContext other) {
+        if (other.isEmpty() || other == this) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        return withAll(other.parent).with(other.key, other.value);
+    }
+
+    /**
+     * @param key The key to look up.
+     *
+     * @return The newest value for the key, or null if there is none.
+     */
+    public Object get(String key) {
+        for (ResultContext context = this; context.parent != null; context = context.parent) {
+            if (context.key.equals(key)) {
+                return context.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the context has no entries.
+     */
+    public boolean isEmpty() {
+        return parent == null;
+    }
+
+    /**
+     * @return The entries, oldest first, with only the newest value for each key.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        addTo(map);
+        return Collections.unmodifiableMap(map);
+    }
+
+    private void addTo(Map<String, Object> map) {
+        if (parent != null) {
+            parent.addTo(map);
+            map.remove(key);
+            map.put(key, value);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || o instanceof ResultContext other && toMap().equals(other.toMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return toMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
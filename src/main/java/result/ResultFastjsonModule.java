@@ -0,0 +1,125 @@
+package result;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.modules.ObjectReaderModule;
+import com.alibaba.fastjson2.modules.ObjectWriterModule;
+import com.alibaba.fastjson2.reader.ObjectReader;
+import com.alibaba.fastjson2.reader.ObjectReaderProvider;
+import com.alibaba.fastjson2.writer.ObjectWriter;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * A fastjson module which writes results as {@code {"ok":value}} or {@code {"err":error}},
+ * straight to the writer without building a {@code JSONObject}.
+ * Results are read back using the declared generic type,
+ * for example {@code JSON.parseObject(json, new TypeReference<List<Result<Integer, String>>>() {})}.
+ * <p>
+ * This uses the {@code com.alibaba.fastjson2:fastjson2} reader and writer API,
+ * call {@link #register()} once before (de)serializing results.
+ * An Ok of null is only read back when the declared Ok type is {@link Void}.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultFastjsonModule {
+    private static boolean registered;
+
+    private ResultFastjsonModule() {}
+
+    /**
+     * Register the module with the default fastjson providers, does nothing if it has already been registered.
+     */
+    public static synchronized void register() {
+        if (!registered) {
+            JSON.register(new WriterModule());
+            JSON.register(new ReaderModule());
+            registered = true;
+        }
+    }
+
+    private static final class WriterModule implements ObjectWriterModule {
+        @Override
+        @SuppressWarnings("rawtypes") // the raw Class is the interface's signature
+        public ObjectWriter<?> getObjectWriter(Type objectType, Class objectClass) {
+            return objectClass != null && Result.class.isAssignableFrom(objectClass) ? Writer.INSTANCE : null;
+        }
+    }
+
+    private static final class ReaderModule implements ObjectReaderModule {
+        @Override
+        public ObjectReader<?> getObjectReader(ObjectReaderProvider provider, Type type) {
+            if (type == Result.class) {
+                return new Reader(Object.class, Object.class);
+            }
+            if (type instanceof ParameterizedType p && p.getRawType() == Result.class) {
+                return new Reader(p.getActualTypeArguments()[0], p.getActualTypeArguments()[1]);
+            }
+            return null;
+        }
+    }
+
+    private static final class Writer implements ObjectWriter<Result<?, ?>> {
+        static final Writer INSTANCE = new Writer();
+
+        @Override
+        public void write(JSONWriter writer, Object object, Object fieldName, Type fieldType, long features) {
+            if (object == null) {
+                writer.writeNull();
+                return;
+            }
+            Result<?, ?> result = (Result<?, ?>) object;
+            writer.startObject();
+            if (result.isOk()) {
+                writer.writeName(ResultJson.OK);
+                writer.writeColon();
+                writer.writeAny(result.get());
+            } else {
+                writer.writeName(ResultJson.ERR);
+                writer.writeColon();
+                writer.writeAny(result.getError());
+            }
+            writer.endObject();
+        }
+    }
+
+    private static final class Reader implements ObjectReader<Result<?, ?>> {
+        private final Type okType;
+        private final Type errType;
+
+        Reader(Type okType, Type errType) {
+            this.okType = okType;
+            this.errType = errType;
+        }
+
+        @Override
+        public Result<?, ?> readObject(JSONReader reader, Type fieldType, Object fieldName, long features) {
+            if (reader.nextIfNull()) {
+                return null;
+            }
+            if (!reader.nextIfObjectStart()) {
+                throw new JSONException(reader.info("Result must be an object"));
+            }
+            String name = reader.readFieldName();
+            boolean isNull = reader.nextIfNull();
+            Result<?, ?> result;
+            if (ResultJson.OK.equals(name)) {
+                if (isNull && !ResultJson.canBeNull(okType)) {
+                    throw new JSONException(reader.info(ResultJson.NULL_OK));
+                }
+                result = Ok.ofDecoded(isNull ? null : reader.read(okType));
+            } else if (ResultJson.ERR.equals(name) && !isNull) {
+                result = Result.err(reader.read(errType));
+            } else {
+                throw new JSONException(reader.info(ResultJson.BAD_FIELD + name));
+            }
+            if (!reader.nextIfObjectEnd()) {
+                throw new JSONException(reader.info(ResultJson.EXTRA_FIELD));
+            }
+            return result;
+        }
+    }
+}
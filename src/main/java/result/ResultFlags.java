@@ -0,0 +1,92 @@
+package result;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The Ok/Err column of a result batch, one bit per result (set for Ok),
+ * with the number of Ok bits before each word so that a result's index into the dense value
+ * or error array can be found in constant time.
+ *
+ * @author Alan Teesdale
+ */
+final class ResultFlags {
+    private final int size;
+    private final long[] words;
+    private final int[] okBefore;
+    private final int okCount;
+
+    private ResultFlags(int size, long[] words) {
+        this.size = size;
+        this.words = words;
+        this.okBefore = new int[words.length];
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            okBefore[w] = count;
+            count += Long.bitCount(words[w]);
+        }
+        this.okCount = count;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int okCount() {
+        return okCount;
+    }
+
+    int errCount() {
+        return size - okCount;
+    }
+
+    boolean isOk(int index) {
+        Objects.checkIndex(index, size);
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return The number of Ok results before the index, which is the index of its value if it is Ok.
+     */
+    int valueIndex(int index) {
+        int w = index >>> 6;
+        return okBefore[w] + Long.bitCount(words[w] & ((1L << index) - 1));
+    }
+
+    /**
+     * @return The number of Err results before the index, which is the index of its error if it is an Err.
+     */
+    int errorIndex(int index) {
+        return index - valueIndex(index);
+    }
+
+    /**
+     * Collects flags one result at a time.
+     */
+    static final class Builder {
+        private long[] words;
+        private int size;
+
+        Builder() {
+            this(64);
+        }
+
+        Builder(int expectedSize) {
+            this.words = new long[Math.max(1, (expectedSize + 63) >>> 6)];
+        }
+
+        void add(boolean ok) {
+            if (size >>> 6 == words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            if (ok) {
+                words[size >>> 6] |= 1L << size;
+            }
+            size++;
+        }
+
+        ResultFlags build() {
+            return new ResultFlags(size, Arrays.copyOf(words, (size + 63) >>> 6));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package result;
+
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@link Flow} stages for streams of results, each applying a {@link Result} combinator to every element.
+ * <p>
+ * The processors map one element to one element, so they hold no buffer: demand from the downstream
+ * subscriber is passed upstream as it is requested (a {@code request(n)} becomes one upstream
+ * {@code request(n)}), and a slow subscriber slows the publisher rather than filling the heap.
+ * If a mapper throws, the upstream subscription is cancelled and the exception is passed downstream.
+ * Each processor accepts a single subscriber.
+ *
+ * <pre>{@code
+ * Flow.Processor<Result<String, Throwable>, Result<Order, Throwable>> parse = ResultFlow.flatMapResult(Order::parse);
+ * records.subscribe(parse);
+ * parse.subscribe(ResultFlow.splitOkErr(orders, deadLetters));
+ * }</pre>
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultFlow {
+    /**
+     * The subscription given to a subscriber which is rejected, requests and cancellation do nothing.
+     */
+    static final Flow.Subscription REJECTED = new Flow.Subscription() {
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+    };
+
+    private ResultFlow() {}
+
+    /**
+     * Map the value of every Ok result, see {@link Result#map(Function)}.
+     *
+     * @param mapper The function to apply to the values.
+     *
+     * @return A processor publishing the mapped results.
+     */
+    public static <T, U, E> Flow.Processor<Result<T, E>, Result<U, E>> mapResult(Function<? super T, ? extends U> mapper) {
+        return new ResultProcessor<>(result -> result.map(mapper));
+    }
+
+    /**
+     * Map the value of every Ok result to a new result, see {@link Result#flatMap(Function)}.
+     *
+     * @param mapper The function to apply to the values.
+     *
+     * @return A processor publishing the mapped results.
+     */
+    public static <T, U, E> Flow.Processor<Result<T, E>, Result<U, E>> flatMapResult(
+            Function<? super T, ? extends Result<? extends U, ? extends E>> mapper
+    ) {
+        return new ResultProcessor<>(result -> result.flatMap(mapper));
+    }
+
+    /**
+     * Map the error of every Err result, see {@link Result#mapError(Function)}.
+     *
+     * @param mapper The function to apply to the errors.
+     *
+     * @return A processor publishing the mapped results.
+     */
+    public static <T, E, F> Flow.Processor<Result<T, E>, Result<T, F>> mapErrors(Function<? super E, ? extends F> mapper) {
+        return new ResultProcessor<>(result -> result.mapError(mapper));
+    }
+
+    /**
+     * Turn every Err result into an Ok result, see {@link Result#transformMatchingError}.
+     *
+     * @param recover Creates the value for an error.
+     *
+     * @return A processor publishing only Ok results.
+     */
+    public static <T, E> Flow.Processor<Result<T, E>, Result<T, E>> recoverErrors(Function<? super E, ? extends T> recover) {
+        return recoverErrors(error -> true, recover);
+    }
+
+    /**
+     * Turn every Err result whose error matches the predicate into an Ok result, see {@link Result#transformMatchingError}.
+     *
+     * @param shouldRecover The test for the errors to recover from.
+     * @param recover       Creates the value for an error.
+     *
+     * @return A processor publishing the recovered results, and the other results unchanged.
+     */
+    public static <T, E> Flow.Processor<Result<T, E>, Result<T, E>> recoverErrors(
+            Predicate<? super E> shouldRecover,
+            Function<? super E, ? extends T> recover
+    ) {
+        return new ResultProcessor<>(result -> result.transformMatchingError(shouldRecover, recover));
+    }
+
+    /**
+     * Route the values of Ok results to one subscriber, and the errors of Err results to another.
+     * The results are not buffered, so the publisher is only asked for as many results as both subscribers
+     * can take, as the next result may go to either. Demand from the two subscribers is combined,
+     * so many small requests from one subscriber are requested upstream at once when the other catches up.
+     * A subscriber which cancels no longer limits the demand, the results meant for it are dropped,
+     * and the upstream subscription is cancelled once both have cancelled.
+     * <p>
+     * The values of Ok results must not be null, as {@link Flow.Subscriber#onNext} does not accept null.
+     *
+     * @param ok  The subscriber for the values.
+     * @param err The subscriber for the errors.
+     *
+     * @return A subscriber to the stream of results.
+     */
+    public static <T, E> Flow.Subscriber<Result<T, E>> splitOkErr(Flow.Subscriber<? super T> ok, Flow.Subscriber<? super E> err) {
+        return new ResultSplitter<>(ok, err);
+    }
+
+    /**
+     * @return The sum of two demands, capped at {@link Long#MAX_VALUE}, which means unbounded.
+     */
+    static long addDemand(long demand, long n) {
+        long sum = demand + n;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+}
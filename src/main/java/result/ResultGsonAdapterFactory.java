@@ -0,0 +1,110 @@
+package result;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * A Gson type adapter factory which writes results as {@code {"ok":value}} or {@code {"err":error}},
+ * straight to the stream without building a {@code JsonElement} tree.
+ * Results are read back using the declared generic type,
+ * for example {@code gson.fromJson(json, new TypeToken<List<Result<Integer, String>>>() {}.getType())}.
+ * An Ok of null is only read back when the declared Ok type is {@link Void}.
+ *
+ * <pre>{@code
+ * Gson gson = new GsonBuilder().registerTypeAdapterFactory(new ResultGsonAdapterFactory()).create();
+ * }</pre>
+ *
+ * @author Alan Teesdale
+ */
+public class ResultGsonAdapterFactory implements TypeAdapterFactory {
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> TypeAdapter<R> create(Gson gson, TypeToken<R> type) {
+        if (!Result.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
+        Type okType = Object.class;
+        Type errType = Object.class;
+        if (type.getType() instanceof ParameterizedType p && p.getRawType() == Result.class) {
+            okType = p.getActualTypeArguments()[0];
+            errType = p.getActualTypeArguments()[1];
+        }
+        TypeAdapter<Object> ok = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(okType));
+        TypeAdapter<Object> err = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(errType));
+        return (TypeAdapter<R>) new Adapter(ok, err, ResultJson.canBeNull(okType)).nullSafe();
+    }
+
+    private static final class Adapter extends TypeAdapter<Result<Object, Object>> {
+        private final TypeAdapter<Object> ok;
+        private final TypeAdapter<Object> err;
+        private final boolean okCanBeNull;
+
+        Adapter(TypeAdapter<Object> ok, TypeAdapter<Object> err, boolean okCanBeNull) {
+            this.ok = ok;
+            this.err = err;
+            this.okCanBeNull = okCanBeNull;
+        }
+
+        @Override
+        public void write(JsonWriter out, Result<Object, Object> result) throws IOException {
+            out.beginObject();
+            if (result.isOk()) {
+                Object value = result.get();
+                if (value == null) {
+                    // A void Ok holds null, which has to be written for the result to be read back
+                    boolean serializeNulls = out.getSerializeNulls();
+                    out.setSerializeNulls(true);
+                    out.name(ResultJson.OK).nullValue();
+                    out.setSerializeNulls(serializeNulls);
+                } else {
+                    out.name(ResultJson.OK);
+                    ok.write(out, value);
+                }
+            } else {
+                out.name(ResultJson.ERR);
+                err.write(out, result.getError());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public Result<Object, Object> read(JsonReader in) throws IOException {
+            // JsonReader throws IllegalStateException for an unexpected token, Gson callers expect JsonParseException
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new JsonParseException(ResultJson.NOT_OBJECT + in.peek() + " at " + in.getPath());
+            }
+            in.beginObject();
+            if (in.peek() != JsonToken.NAME) {
+                throw new JsonParseException(ResultJson.NOT_OBJECT + "an empty object at " + in.getPath());
+            }
+            String name = in.nextName();
+            boolean isNull = in.peek() == JsonToken.NULL;
+            Result<Object, Object> result;
+            if (ResultJson.OK.equals(name)) {
+                if (isNull && !okCanBeNull) {
+                    throw new JsonParseException(ResultJson.NULL_OK + " at " + in.getPath());
+                }
+                result = Ok.ofDecoded(ok.read(in));
+            } else if (ResultJson.ERR.equals(name) && !isNull) {
+                result = Result.err(err.read(in));
+            } else {
+                throw new JsonParseException(ResultJson.BAD_FIELD + name + " at " + in.getPath());
+            }
+            if (in.peek() != JsonToken.END_OBJECT) {
+                throw new JsonParseException(ResultJson.EXTRA_FIELD + " at " + in.getPath());
+            }
+            in.endObject();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An opt-in cache of results for values and errors which are created over and over,
+ * for example {@code Boolean.TRUE} or an enum of error codes.
+ * Results are immutable, so one instance can be handed out to every caller.
+ * <p>
+ * Booleans, Integers from -128 to 127 and enum constants are always served from fixed tables.
+ * The table for an enum is kept in a {@link ClassValue}, which stores it with the enum class itself,
+ * and the table's results only refer to that enum's constants. So it lives exactly as long as the enum class
+ * and doesn't stop an enum from another class loader being unloaded, even if the interner is kept in a static field.
+ * Any other value is kept in a map of at most {@code maxSize} entries (per variant).
+ * Once the map is full, entries are evicted with the CLOCK (second chance) policy, an approximation of
+ * least recently used: a hit only sets the entry's referenced bit, without a lock or any reordering,
+ * and a miss sweeps a hand over the entries, clearing set bits, until it finds one to replace.
+ * So a value which keeps being asked for stays cached while one-off values cycle through.
+ * The values should have cheap, consistent equals and hashCode methods.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultInterner {
+    private static final int SMALL_INT_MIN = -128;
+    private static final int SMALL_INT_MAX = 127;
+
+    private final Variant ok = new Variant(true);
+    private final Variant err = new Variant(false);
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create an interner.
+     *
+     * @param maxSize The maximum number of other values to cache for each variant, 0 to only use the fixed tables.
+     */
+    public ResultInterner(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize cannot be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get an Ok result holding the value, see {@link Result#ok(Object)}.
+     *
+     * @param value The value the result should hold.
+     *
+     * @return a cached ok result with a given value if possible.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E> Result<T, E> ok(T value) {
+        return (Result<T, E>) ok.intern(Objects.requireNonNull(value));
+    }
+
+    /**
+     * Get an error variant of the result, see {@link Result#err(Object)}.
+     *
+     * @param error The error the result should hold.
+     *
+     * @return a cached error result with a given error if possible.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E> Result<T, E> err(E error) {
+        return (Result<T, E>) err.intern(Objects.requireNonNull(error));
+    }
+
+    /**
+     * @return The number of requests served by a cached result.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of requests which had to create a new result.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of results in the bounded maps (not counting the fixed tables).
+     */
+    public int size() {
+        return ok.cache.size() + err.cache.size();
+    }
+
+    /**
+     * The caches for one of the variants.
+     */
+    private final class Variant {
+        private final Result<?, ?>[] booleans;
+        private final Result<?, ?>[] smallInts;
+        /**
+         * The results for each enum's constants, held by the enum class rather than by this variant,
+         * and referring to nothing but the constants, so they never keep an enum or its class loader alive.
+         */
+        private final ClassValue<Result<?, ?>[]> enums;
+        private final ConcurrentHashMap<Object, Slot> cache = new ConcurrentHashMap<>();
+        /**
+         * The cached values in the order the clock hand visits them, guarded by this variant's monitor.
+         */
+        private final List<Object> clock = new ArrayList<>();
+        private int hand;
+        private final boolean isOk;
+
+        Variant(boolean isOk) {
+            this.isOk = isOk;
+            this.booleans = new Result<?, ?>[] {create(Boolean.FALSE), create(Boolean.TRUE)};
+            this.smallInts = new Result<?, ?>[SMALL_INT_MAX - SMALL_INT_MIN + 1];
+            for (int i = 0; i < smallInts.length; i++) {
+                smallInts[i] = create(i + SMALL_INT_MIN);
+            }
+            this.enums = new ClassValue<>() {
+                @Override
+                protected Result<?, ?>[] computeValue(Class<?> type) {
+                    Object[] constants = type.getEnumConstants();
+                    Result<?, ?>[] results = new Result<?, ?>[constants.length];
+                    for (int i = 0; i < constants.length; i++) {
+                        results[i] = create(constants[i]);
+                    }
+                    return results;
+                }
+            };
+        }
+
+        private Result<?, ?> create(Object value) {
+            return isOk ? new Ok<>(value) : new Err<>(value);
+        }
+
+        Result<?, ?> intern(Object value) {
+            Result<?, ?> result;
+            if (value instanceof Boolean b) {
+                result = booleans[b ? 1 : 0];
+            } else if (value instanceof Integer i && i >= SMALL_INT_MIN && i <= SMALL_INT_MAX) {
+                result = smallInts[i - SMALL_INT_MIN];
+            } else if (value instanceof Enum<?> e) {
+                result = enums.get(e.getDeclaringClass())[e.ordinal()];
+            } else {
+                Slot slot = cache.get(value);
+                if (slot == null) {
+                    misses.increment();
+                    return store(value);
+                }
+                if (!slot.referenced) {
+                    slot.referenced = true;
+                }
+                result = slot.result;
+            }
+            hits.increment();
+            return result;
+        }
+
+        private Result<?, ?> store(Object value) {
+            Result<?, ?> result = create(value);
+            if (maxSize == 0) {
+                return result;
+            }
+            synchronized (this) {
+                Slot existing = cache.get(value);
+                if (existing != null) {
+                    return existing.result;
+                }
+                if (clock.size() < maxSize) {
+                    clock.add(value);
+                } else {
+                    // Give every referenced entry a second chance, there is one to replace within a full turn
+                    Slot slot;
+                    while ((slot = cache.get(clock.get(hand))).referenced) {
+                        slot.referenced = false;
+                        hand = (hand + 1) % maxSize;
+                    }
+                    cache.remove(clock.get(hand));
+                    clock.set(hand, value);
+                    hand = (hand + 1) % maxSize;
+                }
+                cache.put(value, new Slot(result));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A cached result, with the bit the clock hand checks before evicting it.
+     */
+    private static final class Slot {
+        final Result<?, ?> result;
+        volatile boolean referenced;
+
+        Slot(Result<?, ?> result) {
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package result;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * A Jackson module which writes results as {@code {"ok":value}} or {@code {"err":error}},
+ * straight to the generator without building a tree or going through a map.
+ * Results are read back using the declared generic type, for example
+ * {@code mapper.readValue(json, new TypeReference<List<Result<Integer, String>>>() {})}.
+ * An Ok of null is only read back when the declared Ok type is {@link Void}.
+ *
+ * <pre>{@code
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new ResultJacksonModule());
+ * }</pre>
+ *
+ * @author Alan Teesdale
+ */
+public class ResultJacksonModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create the module.
+     */
+    public ResultJacksonModule() {
+        super(ResultJacksonModule.class.getSimpleName());
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.addSerializers(new Serializers.Base() {
+            @Override
+            public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+                return Result.class.isAssignableFrom(type.getRawClass()) ? ResultSerializer.INSTANCE : null;
+            }
+        });
+        context.addDeserializers(new Deserializers.Base() {
+            @Override
+            public JsonDeserializer<?> findBeanDeserializer(
+                    JavaType type,
+                    DeserializationConfig config,
+                    BeanDescription beanDesc
+            ) {
+                if (!type.hasRawClass(Result.class)) {
+                    return null;
+                }
+                return new ResultDeserializer(type, null, null);
+            }
+        });
+    }
+
+    private static final class ResultSerializer extends StdSerializer<Result<?, ?>> {
+        private static final long serialVersionUID = 1L;
+
+        static final ResultSerializer INSTANCE = new ResultSerializer();
+
+        private ResultSerializer() {
+            super(Result.class, false);
+        }
+
+        @Override
+        public void serialize(Result<?, ?> result, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(result);
+            if (result.isOk()) {
+                gen.writeFieldName(ResultJson.OK);
+                provider.defaultSerializeValue(result.get(), gen);
+            } else {
+                gen.writeFieldName(ResultJson.ERR);
+                provider.defaultSerializeValue(result.getError(), gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Resolves the deserializers for the Ok and Err types once, when it is contextualised.
+     */
+    private static final class ResultDeserializer extends StdDeserializer<Result<?, ?>> implements ContextualDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        private final JsonDeserializer<?> ok;
+        private final JsonDeserializer<?> err;
+
+        ResultDeserializer(JavaType type, JsonDeserializer<?> ok, JsonDeserializer<?> err) {
+            super(type);
+            this.ok = ok;
+            this.err = err;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+            JavaType type = getValueType();
+            return new ResultDeserializer(
+                    type,
+                    ctxt.findContextualValueDeserializer(type.containedTypeOrUnknown(0), property),
+                    ctxt.findContextualValueDeserializer(type.containedTypeOrUnknown(1), property)
+            );
+        }
+
+        @Override
+        public Result<?, ?> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.isExpectedStartObjectToken()) {
+                p.nextToken();
+            }
+            if (!p.hasToken(JsonToken.FIELD_NAME)) {
+                return (Result<?, ?>) ctxt.handleUnexpectedToken(getValueType(ctxt), p);
+            }
+            String name = p.currentName();
+            boolean isNull = p.nextToken() == JsonToken.VALUE_NULL;
+            Result<?, ?> result;
+            if (ResultJson.OK.equals(name)) {
+                if (isNull && !getValueType().containedTypeOrUnknown(0).hasRawClass(Void.class)) {
+                    return ctxt.reportInputMismatch(this, ResultJson.NULL_OK);
+                }
+                result = Ok.ofDecoded(isNull ? null : ok.deserialize(p, ctxt));
+            } else if (ResultJson.ERR.equals(name) && !isNull) {
+                result = Result.err(err.deserialize(p, ctxt));
+            } else {
+                return ctxt.reportInputMismatch(this, ResultJson.BAD_FIELD + name);
+            }
+            if (p.nextToken() != JsonToken.END_OBJECT) {
+                ctxt.reportWrongTokenException(this, JsonToken.END_OBJECT, ResultJson.EXTRA_FIELD);
+            }
+            return result;
+        }
+    }
+}
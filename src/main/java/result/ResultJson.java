@@ -0,0 +1,30 @@
+package result;
+
+import java.lang.reflect.Type;
+
+/**
+ * The JSON shape shared by the Jackson, Gson and fastjson codecs,
+ * a result is an object with a single field named {@code ok} or {@code err}.
+ *
+ * @author Alan Teesdale
+ */
+final class ResultJson {
+    static final String OK = "ok";
+    static final String ERR = "err";
+
+    static final String NOT_OBJECT = "Result must be an object with an ok or err field, not ";
+    static final String BAD_FIELD = "Result must have an ok or non-null err field, not ";
+    static final String EXTRA_FIELD = "Result must have a single ok or err field";
+    static final String NULL_OK = "Result must have a non-null ok field unless its Ok type is Void";
+
+    private ResultJson() {}
+
+    /**
+     * @param okType The declared Ok type.
+     *
+     * @return true if an Ok of the type can hold null, only a void Ok does, see {@link Result#fromFunction(FallibleRunnable)}.
+     */
+    static boolean canBeNull(Type okType) {
+        return okType == Void.class;
+    }
+}
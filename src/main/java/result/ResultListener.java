@@ -0,0 +1,50 @@
+package result;
+
+/**
+ * A listener for the outcomes of result operations, installed with {@link Instrumentation#install(ResultListener)}.
+ * Each outcome is reported once, for the operation the caller asked for,
+ * not for the results built inside it.
+ * Listeners are called on the thread doing the operation, so they should be cheap and thread safe.
+ * {@link ResultMetrics} is a ready-made implementation.
+ *
+ * @author Alan Teesdale
+ */
+public interface ResultListener {
+    /**
+     * The instrumented operations.
+     */
+    enum Operation {
+        /** Both {@link Result#fromFunction} overloads. */
+        FROM_FUNCTION,
+        /** {@link Result#filter} on an Ok result. */
+        FILTER,
+        /** {@link Result#or} on an Err result, the outcome is that of the supplied result. */
+        OR,
+        /** Every {@link Result#match} overload and {@link MatchTable}. */
+        MATCH,
+        /**
+         * {@link ResultPipeline#apply}, reported under the stage which gave the outcome,
+         * see {@link ResultPipeline#stage(String)}.
+         */
+        PIPELINE
+    }
+
+    /**
+     * Called when an operation gives the Ok variant.
+     *
+     * @param operation The operation.
+     * @param site      The site of the operation, the name of the enclosing {@link Instrumentation#scope}
+     *                  or pipeline stage, or {@link Instrumentation#UNNAMED_SITE}.
+     */
+    void onOk(Operation operation, String site);
+
+    /**
+     * Called when an operation gives the Err variant.
+     *
+     * @param operation The operation.
+     * @param site      The site of the operation, the name of the enclosing {@link Instrumentation#scope}
+     *                  or pipeline stage, or {@link Instrumentation#UNNAMED_SITE}.
+     * @param error     The error.
+     */
+    void onErr(Operation operation, String site, Object error);
+}
@@ -0,0 +1,211 @@
+package result;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ResultListener} which counts Ok and Err outcomes per site and operation,
+ * and keeps a histogram of the most common error classes.
+ * Sites are named with {@link Instrumentation#scope} and {@link ResultPipeline#stage(String)},
+ * so the counts show which call site or pipeline stage the errors come from.
+ * The histogram tracks at most {@code maxErrorClasses} classes: once it is full, a new class replaces
+ * the least common one and inherits its count, so a class which becomes common late still shows up.
+ * The counts of classes which were replaced are reported as untracked, and a tracked count may include
+ * up to the count it inherited.
+ * Counters are {@link LongAdder}s so recording scales across threads.
+ *
+ * <pre>{@code
+ * ResultMetrics metrics = new ResultMetrics(64);
+ * metrics.register("result:type=ResultMetrics");
+ * Instrumentation.install(metrics);
+ * Instrumentation.scope("parse-order", () -> Result.fromFunction(() -> parse(order)));
+ * }</pre>
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultMetrics implements ResultListener, ResultMetricsMXBean {
+    private static final ResultListener.Operation[] OPERATIONS = ResultListener.Operation.values();
+
+    private final ConcurrentMap<String, Counters> sites = new ConcurrentHashMap<>();
+    private final HeavyHitters<Class<?>> errorClasses;
+    private final int maxErrorClasses;
+
+    /**
+     * A point in time copy of the counters.
+     *
+     * @param okCounts         The number of Ok outcomes, by operation, over every site.
+     * @param errCounts        The number of Err outcomes, by operation, over every site.
+     * @param okCountsBySite   The number of Ok outcomes, by site and operation.
+     * @param errCountsBySite  The number of Err outcomes, by site and operation.
+     * @param errorClasses     The tracked error classes, most common first.
+     * @param untrackedErrors  The number of errors which can't be attributed to a tracked class for certain.
+     */
+    public record Snapshot(
+            Map<ResultListener.Operation, Long> okCounts,
+            Map<ResultListener.Operation, Long> errCounts,
+            Map<String, Map<ResultListener.Operation, Long>> okCountsBySite,
+            Map<String, Map<ResultListener.Operation, Long>> errCountsBySite,
+            Map<Class<?>, Long> errorClasses,
+            long untrackedErrors
+    ) {}
+
+    /**
+     * Create a set of metrics.
+     *
+     * @param maxErrorClasses The maximum number of error classes to track.
+     */
+    public ResultMetrics(int maxErrorClasses) {
+        if (maxErrorClasses < 0) {
+            throw new IllegalArgumentException("maxErrorClasses cannot be negative: " + maxErrorClasses);
+        }
+        this.errorClasses = new HeavyHitters<>(maxErrorClasses);
+        this.maxErrorClasses = maxErrorClasses;
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[OPERATIONS.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private Counters counters(String site) {
+        Counters counters = sites.get(site);
+        return counters != null ? counters : sites.computeIfAbsent(site, s -> new Counters());
+    }
+
+    @Override
+    public void onOk(ResultListener.Operation operation, String site) {
+        counters(site).oks[operation.ordinal()].increment();
+    }
+
+    @Override
+    public void onErr(ResultListener.Operation operation, String site, Object error) {
+        Class<?> type = error.getClass();
+        counters(site).errs[operation.ordinal()].increment();
+        errorClasses.add(type);
+    }
+
+    /**
+     * Copy the counters.
+     *
+     * @param topK The number of error classes to include.
+     *
+     * @return The counters as of now.
+     */
+    public Snapshot snapshot(int topK) {
+        Map<ResultListener.Operation, Long> okCounts = new EnumMap<>(ResultListener.Operation.class);
+        Map<ResultListener.Operation, Long> errCounts = new EnumMap<>(ResultListener.Operation.class);
+        for (ResultListener.Operation operation : OPERATIONS) {
+            okCounts.put(operation, 0L);
+            errCounts.put(operation, 0L);
+        }
+        Map<String, Map<ResultListener.Operation, Long>> okCountsBySite = new TreeMap<>();
+        Map<String, Map<ResultListener.Operation, Long>> errCountsBySite = new TreeMap<>();
+        sites.forEach((site, counters) -> {
+            okCountsBySite.put(site, counters.sum(counters.oks, okCounts));
+            errCountsBySite.put(site, counters.sum(counters.errs, errCounts));
+        });
+        List<HeavyHitters.Entry<Class<?>>> counts = errorClasses.entries();
+        Map<Class<?>, Long> top = new LinkedHashMap<>();
+        for (HeavyHitters.Entry<Class<?>> count : counts.subList(0, Math.min(topK, counts.size()))) {
+            top.put(count.key(), count.count());
+        }
+        return new Snapshot(okCounts, errCounts, okCountsBySite, errCountsBySite, top, errorClasses.untracked());
+    }
+
+    /**
+     * Register these metrics with the platform MBean server.
+     *
+     * @param name The JMX object name, for example {@code result:type=ResultMetrics}.
+     *
+     * @return This, the registered metrics.
+     *
+     * @throws IllegalStateException if the metrics could not be registered.
+     */
+    public ResultMetrics register(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name));
+            return this;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + name, e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getOkCounts() {
+        return byName(snapshot(0).okCounts());
+    }
+
+    @Override
+    public Map<String, Long> getErrCounts() {
+        return byName(snapshot(0).errCounts());
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getOkCountsBySite() {
+        return bySite(snapshot(0).okCountsBySite());
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getErrCountsBySite() {
+        return bySite(snapshot(0).errCountsBySite());
+    }
+
+    @Override
+    public Map<String, Long> getTopErrorClasses() {
+        Map<String, Long> top = new LinkedHashMap<>();
+        snapshot(maxErrorClasses).errorClasses().forEach((type, count) -> top.put(type.getName(), count));
+        return top;
+    }
+
+    @Override
+    public long getUntrackedErrors() {
+        return errorClasses.untracked();
+    }
+
+    @Override
+    public void reset() {
+        sites.clear();
+        errorClasses.clear();
+    }
+
+    private static Map<String, Long> byName(Map<ResultListener.Operation, Long> counts) {
+        Map<String, Long> named = new LinkedHashMap<>();
+        counts.forEach((operation, count) -> named.put(operation.name(), count));
+        return named;
+    }
+
+    private static Map<String, Map<String, Long>> bySite(Map<String, Map<ResultListener.Operation, Long>> counts) {
+        Map<String, Map<String, Long>> named = new LinkedHashMap<>();
+        counts.forEach((site, siteCounts) -> named.put(site, byName(siteCounts)));
+        return named;
+    }
+
+    /**
+     * The counters of one site, indexed by operation ordinal.
+     */
+    private static final class Counters {
+        final LongAdder[] oks = newAdders();
+        final LongAdder[] errs = newAdders();
+
+        /**
+         * Sum the adders by operation, adding each sum to the totals as well.
+         */
+        Map<ResultListener.Operation, Long> sum(LongAdder[] adders, Map<ResultListener.Operation, Long> totals) {
+            Map<ResultListener.Operation, Long> counts = new EnumMap<>(ResultListener.Operation.class);
+            for (ResultListener.Operation operation : OPERATIONS) {
+                long count = adders[operation.ordinal()].sum();
+                counts.put(operation, count);
+                totals.merge(operation, count, Long::sum);
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package result;
+
+import java.util.Map;
+
+/**
+ * The JMX view of a {@link ResultMetrics}, see {@link ResultMetrics#register(String)}.
+ *
+ * @author Alan Teesdale
+ */
+public interface ResultMetricsMXBean {
+    /**
+     * @return The number of Ok outcomes, by operation name.
+     */
+    Map<String, Long> getOkCounts();
+
+    /**
+     * @return The number of Err outcomes, by operation name.
+     */
+    Map<String, Long> getErrCounts();
+
+    /**
+     * @return The number of Ok outcomes, by site and then operation name.
+     */
+    Map<String, Map<String, Long>> getOkCountsBySite();
+
+    /**
+     * @return The number of Err outcomes, by site and then operation name.
+     */
+    Map<String, Map<String, Long>> getErrCountsBySite();
+
+    /**
+     * @return The most common error classes, by class name.
+     */
+    Map<String, Long> getTopErrorClasses();
+
+    /**
+     * @return The number of errors which can't be attributed to a tracked class, as the histogram was full.
+     */
+    long getUntrackedErrors();
+
+    /**
+     * Set every counter back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,202 @@
+package result;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A lazy chain of result operations which are only run when the pipeline is applied to a value.
+ * Unlike chaining the methods on {@link Result}, applying a pipeline does not create a result for every step,
+ * only the final one (results returned by {@link #flatMap} mappers are unpacked, not kept).
+ * Pipelines are immutable, so one can be built once and applied to any number of values.
+ * Steps can be grouped into named stages with {@link #stage(String)}, which instrumentation reports outcomes under.
+ *
+ * <pre>{@code
+ * ResultPipeline<String, Integer, String> parse = Result.<String, String>lazy()
+ *         .map(String::trim)
+ *         .filter(s -> !s.isEmpty(), s -> "empty")
+ *         .flatMap(s -> Result.fromFunction(() -> Integer.parseInt(s)).mapError(Throwable::getMessage));
+ * Result<Integer, String> result = parse.apply(" 12 ");
+ * }</pre>
+ *
+ * @param <T> The type of the input value.
+ * @param <U> The Ok type of the output.
+ * @param <E> The Err type of the output.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultPipeline<T, U, E> implements Function<T, Result<U, E>> {
+    private static final int MAP = 0;
+    private static final int FLAT_MAP = 1;
+    private static final int FILTER = 2;
+    private static final int MAP_ERROR = 3;
+
+    private static final ResultPipeline<?, ?, ?> IDENTITY = new ResultPipeline<>(new Step[0], Instrumentation.UNNAMED_SITE);
+
+    private final Step[] steps;
+    private final String stage;
+
+    private ResultPipeline(Step[] steps, String stage) {
+        this.steps = steps;
+        this.stage = stage;
+    }
+
+    /**
+     * Get the empty pipeline, which wraps its input in an Ok result.
+     *
+     * @param <T> The type of the input value.
+     * @param <E> The Err type of the output.
+     *
+     * @return A pipeline with no steps.
+     */
+    @SuppressWarnings("unchecked")
+    static <T, E> ResultPipeline<T, T, E> identity() {
+        return (ResultPipeline<T, T, E>) IDENTITY;
+    }
+
+    /**
+     * Start a named stage, which the steps added after it belong to, up to the next stage.
+     * When instrumentation is enabled, an Err outcome is reported under the stage of the step which gave the error,
+     * and an Ok outcome under the last stage, see {@link ResultListener.Operation#PIPELINE}.
+     *
+     * @param name The name of the stage.
+     *
+     * @return A new pipeline whose next steps are in the stage.
+     */
+    public ResultPipeline<T, U, E> stage(String name) {
+        return new ResultPipeline<>(steps, Objects.requireNonNull(name));
+    }
+
+    /**
+     * See {@link Result#map(Function)}.
+     *
+     * @param mapper map the value of the result to a different one if it exists
+     * @param <V>    the type to map to
+     *
+     * @return A new pipeline with the step appended.
+     */
+    public <V> ResultPipeline<T, V, E> map(Function<? super U, ? extends V> mapper) {
+        return then(new Step(MAP, erase(mapper), null, stage));
+    }
+
+    /**
+     * See {@link Result#flatMap(Function)}.
+     *
+     * @param mapper the function that maps the value to the new result
+     * @param <V>    The new type of the result
+     *
+     * @return A new pipeline with the step appended.
+     */
+    public <V> ResultPipeline<T, V, E> flatMap(Function<? super U, ? extends Result<? extends V, ? extends E>> mapper) {
+        return then(new Step(FLAT_MAP, erase(mapper), null, stage));
+    }
+
+    /**
+     * See {@link Result#filter(Predicate, Function)}.
+     *
+     * @param predicate The predicate the value must match.
+     * @param toError A Function of an error for the Err case if it doesn't match the predicate.
+     *
+     * @return A new pipeline with the step appended.
+     */
+    @SuppressWarnings("unchecked")
+    public ResultPipeline<T, U, E> filter(Predicate<? super U> predicate, Function<? super U, ? extends E> toError) {
+        return then(new Step(
+                FILTER,
+                erase(toError),
+                (Predicate<Object>) Objects.requireNonNull(predicate),
+                stage
+        ));
+    }
+
+    /**
+     * See {@link Result#mapError(Function)}.
+     *
+     * @param mapper A function that takes the error to a different error type.
+     * @param <F>    The new error type.
+     *
+     * @return A new pipeline with the step appended.
+     */
+    public <F> ResultPipeline<T, U, F> mapError(Function<? super E, ? extends F> mapper) {
+        return then(new Step(MAP_ERROR, erase(mapper), null, stage));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> erase(Function<?, ?> function) {
+        return (Function<Object, Object>) Objects.requireNonNull(function);
+    }
+
+    private <V, F> ResultPipeline<T, V, F> then(Step step) {
+        Step[] next = Arrays.copyOf(steps, steps.length + 1);
+        next[steps.length] = step;
+        return new ResultPipeline<>(next, stage);
+    }
+
+    /**
+     * Run every step of the pipeline on the value.
+     *
+     * @param value The input value, treated as an Ok result.
+     *
+     * @return The result of the last step.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Result<U, E> apply(T value) {
+        Object current = Objects.requireNonNull(value);
+        boolean ok = true;
+        ResultContext context = ResultContext.EMPTY;
+        String failedStage = stage;
+        for (Step step : steps) {
+            switch (step.kind()) {
+                case MAP -> {
+                    if (ok) {
+                        current = Objects.requireNonNull(step.function().apply(current));
+                    }
+                }
+                case FLAT_MAP -> {
+                    if (ok) {
+                        Result<Object, Object> next = (Result<Object, Object>) step.function().apply(current);
+                        ok = next.isOk();
+                        current = ok ? next.get() : next.getError();
+                        context = next.context();
+                        failedStage = step.stage();
+                    }
+                }
+                case FILTER -> {
+                    if (ok && !step.predicate().test(current)) {
+                        current = Objects.requireNonNull(step.function().apply(current));
+                        ok = false;
+                        failedStage = step.stage();
+                    }
+                }
+                case MAP_ERROR -> {
+                    if (!ok) {
+                        current = Objects.requireNonNull(step.function().apply(current));
+                    }
+                }
+            }
+        }
+        if (Instrumentation.ENABLED) {
+            if (ok) {
+                Instrumentation.ok(ResultListener.Operation.PIPELINE, stage);
+            } else {
+                Instrumentation.err(ResultListener.Operation.PIPELINE, failedStage, current);
+            }
+        }
+        if (ok) {
+            return new Ok<>((U) current);
+        }
+        return context.isEmpty() ? new Err<>((E) current) : new ContextualErr<>((E) current, context);
+    }
+
+    /**
+     * A single recorded operation.
+     *
+     * @param kind      Which operation this is.
+     * @param function  The mapper, or the error function for a filter.
+     * @param predicate The predicate for a filter, null otherwise.
+     * @param stage     The stage the step belongs to.
+     */
+    private record Step(int kind, Function<Object, Object> function, Predicate<Object> predicate, String stage) {}
+}
@@ -0,0 +1,216 @@
+package result;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A processor which maps each element to exactly one element, see {@link ResultFlow}.
+ * Nothing is buffered, demand from the subscriber is passed straight to the upstream subscription,
+ * or held until the upstream subscription arrives. A completion or error from upstream
+ * which arrives before the subscriber is held until it subscribes.
+ * An invalid request is reported through the same path as the elements, never while an element is being delivered.
+ *
+ * @author Alan Teesdale
+ */
+final class ResultProcessor<A, B> implements Flow.Processor<A, B> {
+    private final Function<? super A, ? extends B> mapper;
+    private volatile Flow.Subscriber<? super B> downstream;
+    /**
+     * Set once nothing more should be taken from upstream, after a mapper or request failure.
+     */
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    /**
+     * Non-zero while an element is being delivered, or once an invalid request has taken over the signalling,
+     * so the error for an invalid request (made on the subscriber's thread) is never delivered alongside an element.
+     */
+    private final AtomicInteger emitting = new AtomicInteger();
+    private volatile Throwable invalidRequest;
+    private Flow.Subscription upstream;
+    private long pending;
+    private boolean connected;
+    private boolean terminated;
+    private Throwable failure;
+
+    ResultProcessor(Function<? super A, ? extends B> mapper) {
+        this.mapper = Objects.requireNonNull(mapper);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super B> subscriber) {
+        Objects.requireNonNull(subscriber);
+        boolean rejected;
+        synchronized (this) {
+            rejected = downstream != null;
+            if (!rejected) {
+                downstream = subscriber;
+            }
+        }
+        if (rejected) {
+            subscriber.onSubscribe(ResultFlow.REJECTED);
+            subscriber.onError(new IllegalStateException("A result processor only accepts one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Downstream());
+        boolean deliver;
+        synchronized (this) {
+            connected = true;
+            deliver = terminated && !cancelled;
+        }
+        if (deliver) {
+            signal(failure);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        long demand;
+        synchronized (this) {
+            if (upstream != null || cancelled || done) {
+                demand = -1;
+            } else {
+                upstream = subscription;
+                demand = pending;
+                pending = 0;
+            }
+        }
+        if (demand < 0) {
+            subscription.cancel();
+        } else if (demand > 0) {
+            subscription.request(demand);
+        }
+    }
+
+    @Override
+    public void onNext(A item) {
+        if (done || cancelled) {
+            return;
+        }
+        B mapped;
+        try {
+            mapped = mapper.apply(item);
+        } catch (RuntimeException e) {
+            fail(e);
+            return;
+        }
+        if (emitting.getAndIncrement() != 0) {
+            // an invalid request has ended the stream
+            return;
+        }
+        downstream.onNext(mapped);
+        if (emitting.decrementAndGet() != 0) {
+            // the subscriber made an invalid request while the element was delivered, report it now
+            terminate(invalidRequest);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        terminate(Objects.requireNonNull(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        terminate(null);
+    }
+
+    /**
+     * Cancel the upstream subscription and pass the failure downstream.
+     */
+    private void fail(Throwable throwable) {
+        Flow.Subscription subscription;
+        synchronized (this) {
+            done = true;
+            subscription = upstream;
+        }
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        terminate(throwable);
+    }
+
+    /**
+     * @param throwable The error to end with, or null to complete.
+     */
+    private void terminate(Throwable throwable) {
+        boolean deliver;
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            failure = throwable;
+            deliver = connected && !cancelled;
+        }
+        if (deliver) {
+            signal(throwable);
+        }
+    }
+
+    private void signal(Throwable throwable) {
+        if (throwable == null) {
+            downstream.onComplete();
+        } else {
+            downstream.onError(throwable);
+        }
+    }
+
+    /**
+     * The subscription given to the subscriber.
+     */
+    private final class Downstream implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalid(new IllegalArgumentException("Requests must be positive: " + n));
+                return;
+            }
+            Flow.Subscription subscription;
+            synchronized (ResultProcessor.this) {
+                if (cancelled || done) {
+                    return;
+                }
+                subscription = upstream;
+                if (subscription == null) {
+                    pending = ResultFlow.addDemand(pending, n);
+                    return;
+                }
+            }
+            subscription.request(n);
+        }
+
+        /**
+         * Cancel upstream, and report the error unless an element is being delivered,
+         * in which case the thread delivering it reports the error once it is done.
+         */
+        private void invalid(IllegalArgumentException error) {
+            Flow.Subscription subscription;
+            synchronized (ResultProcessor.this) {
+                done = true;
+                subscription = upstream;
+            }
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            invalidRequest = error;
+            if (emitting.getAndIncrement() == 0) {
+                terminate(error);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription subscription;
+            synchronized (ResultProcessor.this) {
+                cancelled = true;
+                subscription = upstream;
+            }
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package result;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes the values of Ok results to one subscriber and the errors of Err results to another,
+ * see {@link ResultFlow#splitOkErr}.
+ * Nothing is buffered, so the results requested upstream and not yet received never exceed the demand
+ * of either subscriber. A cancelled subscriber counts as having unbounded demand.
+ *
+ * @author Alan Teesdale
+ */
+final class ResultSplitter<T, E> implements Flow.Subscriber<Result<T, E>> {
+    private final Branch<T> ok;
+    private final Branch<E> err;
+    private Flow.Subscription upstream;
+    /**
+     * The results requested upstream and not yet received.
+     */
+    private long outstanding;
+    /**
+     * Set once both subscribers have unbounded demand and {@link Long#MAX_VALUE} has been requested upstream.
+     */
+    private boolean unbounded;
+
+    ResultSplitter(Flow.Subscriber<? super T> ok, Flow.Subscriber<? super E> err) {
+        this.ok = new Branch<>(Objects.requireNonNull(ok));
+        this.err = new Branch<>(Objects.requireNonNull(err));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        boolean duplicate;
+        synchronized (this) {
+            duplicate = upstream != null;
+            if (!duplicate) {
+                upstream = subscription;
+            }
+        }
+        if (duplicate) {
+            subscription.cancel();
+            return;
+        }
+        ok.subscriber.onSubscribe(ok);
+        err.subscriber.onSubscribe(err);
+    }
+
+    @Override
+    public void onNext(Result<T, E> result) {
+        Branch<?> branch = result.isOk() ? ok : err;
+        boolean deliver;
+        synchronized (this) {
+            if (!unbounded) {
+                outstanding--;
+            }
+            deliver = !branch.cancelled;
+            if (deliver && branch.demand != Long.MAX_VALUE) {
+                branch.demand--;
+            }
+        }
+        if (deliver && result.isOk()) {
+            ok.next(result.get());
+        } else if (deliver) {
+            err.next(result.getError());
+        }
+        // Only one subscriber's demand went down, so the other may be able to take more
+        requestUpstream();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        if (!ok.isCancelled()) {
+            ok.terminate(throwable);
+        }
+        if (!err.isCancelled()) {
+            err.terminate(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (!ok.isCancelled()) {
+            ok.terminate(null);
+        }
+        if (!err.isCancelled()) {
+            err.terminate(null);
+        }
+    }
+
+    /**
+     * Request as many results upstream as both subscribers can take, less those already requested.
+     */
+    private void requestUpstream() {
+        Flow.Subscription subscription;
+        long n;
+        synchronized (this) {
+            subscription = upstream;
+            if (ok.cancelled && err.cancelled) {
+                n = -1;
+            } else if (unbounded) {
+                n = 0;
+            } else {
+                long allowed = Math.min(ok.available(), err.available());
+                if (allowed == Long.MAX_VALUE) {
+                    unbounded = true;
+                    n = Long.MAX_VALUE;
+                } else {
+                    n = Math.max(0, allowed - outstanding);
+                    outstanding += n;
+                }
+            }
+        }
+        if (n < 0) {
+            subscription.cancel();
+        } else if (n > 0) {
+            subscription.request(n);
+        }
+    }
+
+    /**
+     * The subscription given to one of the subscribers, its demand and cancelled flag are guarded by the splitter.
+     * Signals to the subscriber go through {@link #next} and {@link #terminate}, so the error for an invalid request,
+     * made on the subscriber's thread, is never delivered alongside an element or another terminal signal.
+     */
+    private final class Branch<V> implements Flow.Subscription {
+        private final Flow.Subscriber<? super V> subscriber;
+        /**
+         * Non-zero while an element is being delivered, and for good once the subscriber has been terminated.
+         */
+        private final AtomicInteger emitting = new AtomicInteger();
+        private volatile Throwable invalidRequest;
+        private long demand;
+        private boolean cancelled;
+
+        private Branch(Flow.Subscriber<? super V> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private long available() {
+            return cancelled ? Long.MAX_VALUE : demand;
+        }
+
+        private void next(V value) {
+            if (emitting.getAndIncrement() != 0) {
+                return;
+            }
+            subscriber.onNext(value);
+            if (emitting.decrementAndGet() != 0) {
+                // the subscriber made an invalid request while the element was delivered, report it now
+                subscriber.onError(invalidRequest);
+            }
+        }
+
+        /**
+         * @param throwable The error to end with, or null to complete.
+         */
+        private void terminate(Throwable throwable) {
+            if (emitting.getAndIncrement() != 0) {
+                return;
+            }
+            if (throwable == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(throwable);
+            }
+        }
+
+        private boolean isCancelled() {
+            synchronized (ResultSplitter.this) {
+                return cancelled;
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                invalidRequest = new IllegalArgumentException("Requests must be positive: " + n);
+                terminate(invalidRequest);
+                return;
+            }
+            synchronized (ResultSplitter.this) {
+                if (cancelled) {
+                    return;
+                }
+                demand = ResultFlow.addDemand(demand, n);
+            }
+            requestUpstream();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (ResultSplitter.this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+            }
+            requestUpstream();
+        }
+    }
+}
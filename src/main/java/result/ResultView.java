@@ -0,0 +1,115 @@
+package result;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list over results encoded by {@link ResultCodec#writeAll}, see {@link ResultCodec#view(ByteBuffer)}.
+ * Nothing is decoded up front, {@link #get(int)} decodes a single result,
+ * while {@link #isOk(int)} and {@link #okCount()} only read tag bytes and allocate nothing.
+ *
+ * @param <T> The Ok type of the results.
+ * @param <E> The Err type of the results.
+ *
+ * @author Alan Teesdale
+ */
+public final class ResultView<T, E> extends AbstractList<Result<T, E>> implements RandomAccess {
+    private final ResultCodec<T, E> codec;
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int count;
+
+    ResultView(ResultCodec<T, E> codec, ByteBuffer buffer, int start, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative result count " + count + " at " + start);
+        }
+        this.codec = codec;
+        this.buffer = buffer;
+        this.start = start;
+        this.count = count;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Decode the result at the index.
+     *
+     * @param index The index of the result.
+     *
+     * @return The decoded result.
+     */
+    @Override
+    public Result<T, E> get(int index) {
+        return codec.readAt(buffer, offset(index));
+    }
+
+    /**
+     * @param index The index of the result.
+     *
+     * @return true if the result at the index is Ok, without decoding it.
+     */
+    public boolean isOk(int index) {
+        return ResultCodec.tagAt(buffer, offset(index)) == ResultCodec.OK;
+    }
+
+    /**
+     * Decode just the value of an Ok result, without creating the result.
+     *
+     * @param index The index of the result.
+     *
+     * @return The value.
+     *
+     * @throws UnwrapException if the result is an Err.
+     */
+    public T getOk(int index) throws UnwrapException {
+        int offset = offset(index);
+        if (ResultCodec.tagAt(buffer, offset) != ResultCodec.OK) {
+            throw UnwrapException.ofErr(codec.errAt(buffer, offset));
+        }
+        return codec.okAt(buffer, offset);
+    }
+
+    /**
+     * Decode just the error of an Err result, without creating the result.
+     *
+     * @param index The index of the result.
+     *
+     * @return The error.
+     *
+     * @throws UnwrapException if the result is Ok.
+     */
+    public E getError(int index) throws UnwrapException {
+        int offset = offset(index);
+        if (ResultCodec.tagAt(buffer, offset) != ResultCodec.ERR) {
+            throw UnwrapException.ofOk(codec.readAt(buffer, offset));
+        }
+        return codec.errAt(buffer, offset);
+    }
+
+    /**
+     * @return The number of Ok results, found without decoding any of them.
+     */
+    public int okCount() {
+        int ok = 0;
+        for (int i = 0; i < count; i++) {
+            if (isOk(i)) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * @return The absolute index in the buffer of the result at the index.
+     */
+    int offset(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+        }
+        return start + buffer.getInt(start + Integer.BYTES * (1 + index));
+    }
+}
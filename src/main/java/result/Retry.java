@@ -0,0 +1,93 @@
+package result;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link FallibleSupplier} until it succeeds or the {@link RetryPolicy} gives up,
+ * see {@link Result#retry} and {@link Result#retryAsync}.
+ * The result is that of the last attempt.
+ *
+ * @author Alan Teesdale
+ */
+final class Retry {
+    private Retry() {}
+
+    static <T> Result<T, Throwable> retry(FallibleSupplier<T> supplier, RetryPolicy policy) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(policy);
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            Result<T, Throwable> result = Result.fromFunction(supplier);
+            if (result.isOk()) {
+                return result;
+            }
+            long delay = policy.delayNanos(attempt);
+            if (!policy.shouldRetry(attempt, result.getError(), delay, start)) {
+                return result;
+            }
+            // parkNanos can return early, spuriously or when unparked, so park until the wait is over
+            long wakeUp = System.nanoTime() + delay;
+            for (long remaining = delay; remaining > 0; remaining = wakeUp - System.nanoTime()) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    return Result.err(new InterruptedException("Interrupted while waiting to retry"));
+                }
+            }
+        }
+    }
+
+    static <T> AsyncResult<T, Throwable> retryAsync(
+            FallibleSupplier<T> supplier,
+            RetryPolicy policy,
+            ScheduledExecutorService scheduler
+    ) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(policy);
+        Objects.requireNonNull(scheduler);
+        CompletableFuture<Result<T, Throwable>> future = new CompletableFuture<>();
+        schedule(supplier, policy, scheduler, future, 1, System.nanoTime(), 0);
+        return AsyncResult.of(future);
+    }
+
+    /**
+     * Schedule an attempt, which schedules the next one (without blocking) if it fails.
+     */
+    private static <T> void schedule(
+            FallibleSupplier<T> supplier,
+            RetryPolicy policy,
+            ScheduledExecutorService scheduler,
+            CompletableFuture<Result<T, Throwable>> future,
+            int attempt,
+            long start,
+            long delay
+    ) {
+        Runnable run = () -> {
+            if (future.isDone()) {
+                return;
+            }
+            // an exception thrown here would be swallowed by the scheduled future and the result would never complete
+            try {
+                Result<T, Throwable> result = Result.fromFunction(supplier);
+                long next = policy.delayNanos(attempt);
+                if (result.isOk() || !policy.shouldRetry(attempt, result.getError(), next, start)) {
+                    future.complete(result);
+                } else {
+                    schedule(supplier, policy, scheduler, future, attempt + 1, start, next);
+                }
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        try {
+            scheduler.schedule(run, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            future.complete(Result.err(e));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package result;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * How to retry a {@link FallibleSupplier}, see {@link Result#retry(FallibleSupplier, RetryPolicy)}.
+ * The delay before retry {@code n} is {@code initialDelay * multiplier^(n - 1)}, capped at {@code maxDelay},
+ * then reduced by a random fraction of up to {@code jitter} so that many callers don't retry in lockstep.
+ * No retry is made once {@code maxAttempts} is reached, if the error isn't retryable,
+ * or if waiting for the next attempt would pass the deadline.
+ *
+ * <pre>{@code
+ * RetryPolicy policy = RetryPolicy.attempts(5)
+ *         .withBackoff(Duration.ofMillis(50), 2, Duration.ofSeconds(2))
+ *         .withJitter(0.5)
+ *         .withDeadline(Duration.ofSeconds(5))
+ *         .retryIf(e -> e instanceof IOException);
+ * }</pre>
+ *
+ * @param maxAttempts  The maximum number of attempts, including the first.
+ * @param initialDelay The delay before the first retry.
+ * @param multiplier   How much the delay grows by after each retry.
+ * @param maxDelay     The largest delay between attempts.
+ * @param jitter       The largest fraction (0 to 1) of the delay to randomly remove.
+ * @param deadline     The total time allowed for every attempt and delay.
+ * @param retryable    Whether an error should be retried.
+ *
+ * @author Alan Teesdale
+ */
+public record RetryPolicy(
+        int maxAttempts,
+        Duration initialDelay,
+        double multiplier,
+        Duration maxDelay,
+        double jitter,
+        Duration deadline,
+        Predicate<Throwable> retryable
+) {
+    private static final Duration FOREVER = Duration.ofNanos(Long.MAX_VALUE);
+
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be at least 1: " + multiplier);
+        }
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("jitter must be between 0 and 1: " + jitter);
+        }
+        Objects.requireNonNull(initialDelay);
+        Objects.requireNonNull(maxDelay);
+        Objects.requireNonNull(deadline);
+        Objects.requireNonNull(retryable);
+    }
+
+    /**
+     * A policy which retries every error immediately, with no deadline.
+     *
+     * @param maxAttempts The maximum number of attempts, including the first.
+     *
+     * @return The policy.
+     */
+    public static RetryPolicy attempts(int maxAttempts) {
+        return new RetryPolicy(maxAttempts, Duration.ZERO, 1, Duration.ZERO, 0, FOREVER, e -> true);
+    }
+
+    /**
+     * @param initialDelay The delay before the first retry.
+     * @param multiplier   How much the delay grows by after each retry.
+     * @param maxDelay     The largest delay between attempts.
+     *
+     * @return A copy of this policy with exponential backoff.
+     */
+    public RetryPolicy withBackoff(Duration initialDelay, double multiplier, Duration maxDelay) {
+        return new RetryPolicy(maxAttempts, initialDelay, multiplier, maxDelay, jitter, deadline, retryable);
+    }
+
+    /**
+     * @param jitter The largest fraction (0 to 1) of the delay to randomly remove.
+     *
+     * @return A copy of this policy with the jitter.
+     */
+    public RetryPolicy withJitter(double jitter) {
+        return new RetryPolicy(maxAttempts, initialDelay, multiplier, maxDelay, jitter, deadline, retryable);
+    }
+
+    /**
+     * @param deadline The total time allowed for every attempt and delay.
+     *
+     * @return A copy of this policy with the deadline.
+     */
+    public RetryPolicy withDeadline(Duration deadline) {
+        return new RetryPolicy(maxAttempts, initialDelay, multiplier, maxDelay, jitter, deadline, retryable);
+    }
+
+    /**
+     * @param retryable Whether an error should be retried.
+     *
+     * @return A copy of this policy which only retries errors matching the predicate.
+     */
+    public RetryPolicy retryIf(Predicate<Throwable> retryable) {
+        return new RetryPolicy(maxAttempts, initialDelay, multiplier, maxDelay, jitter, deadline, retryable);
+    }
+
+    /**
+     * The delay before the given retry.
+     *
+     * @param retry The retry number, 1 for the delay after the first attempt.
+     *
+     * @return The delay in nanoseconds, with jitter applied.
+     */
+    long delayNanos(int retry) {
+        double delay = Math.min(
+                initialDelay.toNanos() * Math.pow(multiplier, retry - 1),
+                maxDelay.toNanos()
+        );
+        if (jitter > 0) {
+            delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return (long) delay;
+    }
+
+    /**
+     * Whether to retry after the given attempt failed with the error.
+     *
+     * @param attempt The number of attempts made so far.
+     * @param error   The error of the last attempt.
+     * @param delay   The delay before the next attempt, in nanoseconds.
+     * @param start   When the first attempt started, from {@link System#nanoTime()}.
+     *
+     * @return true if another attempt should be made.
+     */
+    boolean shouldRetry(int attempt, Throwable error, long delay, long start) {
+        long remaining = deadline.toNanos() - (System.nanoTime() - start);
+        return attempt < maxAttempts && retryable.test(error) && remaining > delay;
+    }
+}
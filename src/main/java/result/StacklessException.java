@@ -0,0 +1,33 @@
+package result;
+
+/**
+ * An exception that does not record a stack trace or suppressed exceptions.
+ * Intended for failures which are expected and frequent (for example validation in a parsing loop),
+ * where filling in the stack trace would dominate the cost of the failure.
+ * Throw it from a {@link FallibleSupplier} or {@link FallibleRunnable} and it will be captured by
+ * {@link Result#fromFunction(FallibleSupplier)} without ever walking the stack.
+ *
+ * @author Alan Teesdale
+ */
+public class StacklessException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a stackless exception with a message.
+     *
+     * @param message The detail message.
+     */
+    public StacklessException(String message) {
+        super(message, null, false, false);
+    }
+
+    /**
+     * Create a stackless exception with a message and a cause.
+     *
+     * @param message The detail message.
+     * @param cause The cause of this exception.
+     */
+    public StacklessException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
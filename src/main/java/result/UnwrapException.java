@@ -0,0 +1,61 @@
+package result;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Thrown when a result is unwrapped as the wrong variant,
+ * by {@link Result#get()} on an Err or {@link Result#getError()} on an Ok (and the primitive equivalents).
+ * The message is only built if it is asked for, so a failed unwrap never calls {@code toString} on the held value.
+ * If the held error is a {@link Throwable} it is used as the cause.
+ * <p>
+ * Stack traces can be turned off with the system property {@code result.unwrap.stackless=true},
+ * for code which treats a failed unwrap as an expected, cheap outcome.
+ *
+ * @author Alan Teesdale
+ */
+public class UnwrapException extends NoSuchElementException {
+    private static final long serialVersionUID = 1L;
+    private static final boolean STACKLESS = Boolean.getBoolean("result.unwrap.stackless");
+
+    private final transient Object held;
+    private final boolean okVariant;
+
+    private UnwrapException(Object held, boolean okVariant) {
+        super(null, !okVariant && held instanceof Throwable t ? t : null);
+        this.held = held;
+        this.okVariant = okVariant;
+    }
+
+    /**
+     * @param error The error of the Err result which was unwrapped as Ok.
+     */
+    static UnwrapException ofErr(Object error) {
+        return new UnwrapException(error, false);
+    }
+
+    /**
+     * @param ok The Ok result which was unwrapped as Err.
+     */
+    static UnwrapException ofOk(Object ok) {
+        return new UnwrapException(ok, true);
+    }
+
+    /**
+     * @return true if the result which was unwrapped was of the Ok variant.
+     */
+    public boolean isOkVariant() {
+        return okVariant;
+    }
+
+    @Override
+    public String getMessage() {
+        return okVariant
+                ? held + ": Is of the Ok Variant"
+                : "Result is error variant with value: " + held;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return STACKLESS ? this : super.fillInStackTrace();
+    }
+}
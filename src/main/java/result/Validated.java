@@ -0,0 +1,425 @@
+package result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Combines independent results, collecting every error instead of stopping at the first like
+ * {@link Result#flatMap} does. Intended for request validation, where each field is checked on its own
+ * and every failing field should be reported.
+ * <p>
+ * Each {@code zipN} takes its results as separate parameters, so no varargs array is created,
+ * and the error list is only allocated (at its exact size) if at least one result is an Err.
+ * See {@link Result#validate} for any number of results of the same type.
+ *
+ * <pre>{@code
+ * Result<User, List<String>> user = Validated.zip3(
+ *         validateName(request.name()),
+ *         validateEmail(request.email()),
+ *         validateAge(request.age()),
+ *         User::new
+ * );
+ * }</pre>
+ *
+ * @author Alan Teesdale
+ */
+public final class Validated {
+    private Validated() {}
+
+    /**
+     * A function of 3 arguments.
+     *
+     * @param <T1> The type of the first argument.
+     * @param <T2> The type of the second argument.
+     * @param <T3> The type of the third argument.
+     * @param <R> The return type.
+     */
+    @FunctionalInterface
+    public interface Function3<T1, T2, T3, R> {
+        /**
+         * Apply the function.
+         *
+         * @param t1 The first argument.
+         * @param t2 The second argument.
+         * @param t3 The third argument.
+         *
+         * @return The result of the function.
+         */
+        R apply(T1 t1, T2 t2, T3 t3);
+    }
+
+    /**
+     * A function of 4 arguments.
+     *
+     * @param <T1> The type of the first argument.
+     * @param <T2> The type of the second argument.
+     * @param <T3> The type of the third argument.
+     * @param <T4> The type of the fourth argument.
+     * @param <R> The return type.
+     */
+    @FunctionalInterface
+    public interface Function4<T1, T2, T3, T4, R> {
+        /**
+         * Apply the function.
+         *
+         * @param t1 The first argument.
+         * @param t2 The second argument.
+         * @param t3 The third argument.
+         * @param t4 The fourth argument.
+         *
+         * @return The result of the function.
+         */
+        R apply(T1 t1, T2 t2, T3 t3, T4 t4);
+    }
+
+    /**
+     * A function of 5 arguments.
+     *
+     * @param <T1> The type of the first argument.
+     * @param <T2> The type of the second argument.
+     * @param <T3> The type of the third argument.
+     * @param <T4> The type of the fourth argument.
+     * @param <T5> The type of the fifth argument.
+     * @param <R> The return type.
+     */
+    @FunctionalInterface
+    public interface Function5<T1, T2, T3, T4, T5, R> {
+        /**
+         * Apply the function.
+         *
+         * @param t1 The first argument.
+         * @param t2 The second argument.
+         * @param t3 The third argument.
+         * @param t4 The fourth argument.
+         * @param t5 The fifth argument.
+         *
+         * @return The result of the function.
+         */
+        R apply(T1 t1, T2 t2, T3 t3, T4 t4, T5 t5);
+    }
+
+    /**
+     * A function of 6 arguments.
+     *
+     * @param <T1> The type of the first argument.
+     * @param <T2> The type of the second argument.
+     * @param <T3> The type of the third argument.
+     * @param <T4> The type of the fourth argument.
+     * @param <T5> The type of the fifth argument.
+     * @param <T6> The type of the sixth argument.
+     * @param <R> The return type.
+     */
+    @FunctionalInterface
+    public interface Function6<T1, T2, T3, T4, T5, T6, R> {
+        /**
+         * Apply the function.
+         *
+         * @param t1 The first argument.
+         * @param t2 The second argument.
+         * @param t3 The third argument.
+         * @param t4 The fourth argument.
+         * @param t5 The fifth argument.
+         * @param t6 The sixth argument.
+         *
+         * @return The result of the function.
+         */
+        R apply(T1 t1, T2 t2, T3 t3, T4 t4, T5 t5, T6 t6);
+    }
+
+    /**
+     * A function of 7 arguments.
+     *
+     * @param <T1> The type of the first argument.
+     * @param <T2> The type of the second argument.
+     * @param <T3> The type of the third argument.
+     * @param <T4> The type of the fourth argument.
+     * @param <T5> The type of the fifth argument.
+     * @param <T6> The type of the sixth argument.
+     * @param <T7> The type of the seventh argument.
+     * @param <R> The return type.
+     */
+    @FunctionalInterface
+    public interface Function7<T1, T2, T3, T4, T5, T6, T7, R> {
+        /**
+         * Apply the function.
+         *
+         * @param t1 The first argument.
+         * @param t2 The second argument.
+         * @param t3 The third argument.
+         * @param t4 The fourth argument.
+         * @param t5 The fifth argument.
+         * @param t6 The sixth argument.
+         * @param t7 The seventh argument.
+         *
+         * @return The result of the function.
+         */
+        R apply(T1 t1, T2 t2, T3 t3, T4 t4, T5 t5, T6 t6, T7 t7);
+    }
+
+    /**
+     * A function of 8 arguments.
+     *
+     * @param <T1> The type of the first argument.
+     * @param <T2> The type of the second argument.
+     * @param <T3> The type of the third argument.
+     * @param <T4> The type of the fourth argument.
+     * @param <T5> The type of the fifth argument.
+     * @param <T6> The type of the sixth argument.
+     * @param <T7> The type of the seventh argument.
+     * @param <T8> The type of the eighth argument.
+     * @param <R> The return type.
+     */
+    @FunctionalInterface
+    public interface Function8<T1, T2, T3, T4, T5, T6, T7, T8, R> {
+        /**
+         * Apply the function.
+         *
+         * @param t1 The first argument.
+         * @param t2 The second argument.
+         * @param t3 The third argument.
+         * @param t4 The fourth argument.
+         * @param t5 The fifth argument.
+         * @param t6 The sixth argument.
+         * @param t7 The seventh argument.
+         * @param t8 The eighth argument.
+         *
+         * @return The result of the function.
+         */
+        R apply(T1 t1, T2 t2, T3 t3, T4 t4, T5 t5, T6 t6, T7 t7, T8 t8);
+    }
+
+    /**
+     * Combine the values of 2 results, or collect the errors of every one which failed.
+     *
+     * @param r1 The first result.
+     * @param r2 The second result.
+     * @param combine Combines the values if every result is Ok.
+     *
+     * @return Ok of the combined values, or Err of every error in argument order.
+     */
+    public static <T1, T2, E, R> Result<R, List<E>> zip2(
+            Result<? extends T1, ? extends E> r1,
+            Result<? extends T2, ? extends E> r2,
+            BiFunction<? super T1, ? super T2, ? extends R> combine
+    ) {
+        if (r1.isOk() && r2.isOk()) {
+            return Result.ok(combine.apply(r1.get(), r2.get()));
+        }
+        List<E> errors = new ArrayList<>(errors(r1) + errors(r2));
+        addError(errors, r1);
+        addError(errors, r2);
+        return Result.err(errors);
+    }
+
+    /**
+     * Combine the values of 3 results, or collect the errors of every one which failed.
+     *
+     * @param r1 The first result.
+     * @param r2 The second result.
+     * @param r3 The third result.
+     * @param combine Combines the values if every result is Ok.
+     *
+     * @return Ok of the combined values, or Err of every error in argument order.
+     */
+    public static <T1, T2, T3, E, R> Result<R, List<E>> zip3(
+            Result<? extends T1, ? extends E> r1,
+            Result<? extends T2, ? extends E> r2,
+            Result<? extends T3, ? extends E> r3,
+            Function3<? super T1, ? super T2, ? super T3, ? extends R> combine
+    ) {
+        if (r1.isOk() && r2.isOk() && r3.isOk()) {
+            return Result.ok(combine.apply(r1.get(), r2.get(), r3.get()));
+        }
+        List<E> errors = new ArrayList<>(errors(r1) + errors(r2) + errors(r3));
+        addError(errors, r1);
+        addError(errors, r2);
+        addError(errors, r3);
+        return Result.err(errors);
+    }
+
+    /**
+     * Combine the values of 4 results, or collect the errors of every one which failed.
+     *
+     * @param r1 The first result.
+     * @param r2 The second result.
+     * @param r3 The third result.
+     * @param r4 The fourth result.
+     * @param combine Combines the values if every result is Ok.
+     *
+     * @return Ok of the combined values, or Err of every error in argument order.
+     */
+    public static <T1, T2, T3, T4, E, R> Result<R, List<E>> zip4(
+            Result<? extends T1, ? extends E> r1,
+            Result<? extends T2, ? extends E> r2,
+            Result<? extends T3, ? extends E> r3,
+            Result<? extends T4, ? extends E> r4,
+            Function4<? super T1, ? super T2, ? super T3, ? super T4, ? extends R> combine
+    ) {
+        if (r1.isOk() && r2.isOk() && r3.isOk() && r4.isOk()) {
+            return Result.ok(combine.apply(r1.get(), r2.get(), r3.get(), r4.get()));
+        }
+        List<E> errors = new ArrayList<>(errors(r1) + errors(r2) + errors(r3) + errors(r4));
+        addError(errors, r1);
+        addError(errors, r2);
+        addError(errors, r3);
+        addError(errors, r4);
+        return Result.err(errors);
+    }
+
+    /**
+     * Combine the values of 5 results, or collect the errors of every one which failed.
+     *
+     * @param r1 The first result.
+     * @param r2 The second result.
+     * @param r3 The third result.
+     * @param r4 The fourth result.
+     * @param r5 The fifth result.
+     * @param combine Combines the values if every result is Ok.
+     *
+     * @return Ok of the combined values, or Err of every error in argument order.
+     */
+    public static <T1, T2, T3, T4, T5, E, R> Result<R, List<E>> zip5(
+            Result<? extends T1, ? extends E> r1,
+            Result<? extends T2, ? extends E> r2,
+            Result<? extends T3, ? extends E> r3,
+            Result<? extends T4, ? extends E> r4,
+            Result<? extends T5, ? extends E> r5,
+            Function5<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? extends R> combine
+    ) {
+        if (r1.isOk() && r2.isOk() && r3.isOk() && r4.isOk() && r5.isOk()) {
+            return Result.ok(combine.apply(r1.get(), r2.get(), r3.get(), r4.get(), r5.get()));
+        }
+        List<E> errors = new ArrayList<>(errors(r1) + errors(r2) + errors(r3) + errors(r4) + errors(r5));
+        addError(errors, r1);
+        addError(errors, r2);
+        addError(errors, r3);
+        addError(errors, r4);
+        addError(errors, r5);
+        return Result.err(errors);
+    }
+
+    /**
+     * Combine the values of 6 results, or collect the errors of every one which failed.
+     *
+     * @param r1 The first result.
+     * @param r2 The second result.
+     * @param r3 The third result.
+     * @param r4 The fourth result.
+     * @param r5 The fifth result.
+     * @param r6 The sixth result.
+     * @param combine Combines the values if every result is Ok.
+     *
+     * @return Ok of the combined values, or Err of every error in argument order.
+     */
+    public static <T1, T2, T3, T4, T5, T6, E, R> Result<R, List<E>> zip6(
+            Result<? extends T1, ? extends E> r1,
+            Result<? extends T2, ? extends E> r2,
+            Result<? extends T3, ? extends E> r3,
+            Result<? extends T4, ? extends E> r4,
+            Result<? extends T5, ? extends E> r5,
+            Result<? extends T6, ? extends E> r6,
+            Function6<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? extends R> combine
+    ) {
+        if (r1.isOk() && r2.isOk() && r3.isOk() && r4.isOk() && r5.isOk() && r6.isOk()) {
+            return Result.ok(combine.apply(r1.get(), r2.get(), r3.get(), r4.get(), r5.get(), r6.get()));
+        }
+        List<E> errors = new ArrayList<>(errors(r1) + errors(r2) + errors(r3) + errors(r4) + errors(r5) + errors(r6));
+        addError(errors, r1);
+        addError(errors, r2);
+        addError(errors, r3);
+        addError(errors, r4);
+        addError(errors, r5);
+        addError(errors, r6);
+        return Result.err(errors);
+    }
+
+    /**
+     * Combine the values of 7 results, or collect the errors of every one which failed.
+     *
+     * @param r1 The first result.
+     * @param r2 The second result.
+     * @param r3 The third result.
+     * @param r4 The fourth result.
+     * @param r5 The fifth result.
+     * @param r6 The sixth result.
+     * @param r7 The seventh result.
+     * @param combine Combines the values if every result is Ok.
+     *
+     * @return Ok of the combined values, or Err of every error in argument order.
+     */
+    public static <T1, T2, T3, T4, T5, T6, T7, E, R> Result<R, List<E>> zip7(
+            Result<? extends T1, ? extends E> r1,
+            Result<? extends T2, ? extends E> r2,
+            Result<? extends T3, ? extends E> r3,
+            Result<? extends T4, ? extends E> r4,
+            Result<? extends T5, ? extends E> r5,
+            Result<? extends T6, ? extends E> r6,
+            Result<? extends T7, ? extends E> r7,
+            Function7<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? extends R> combine
+    ) {
+        if (r1.isOk() && r2.isOk() && r3.isOk() && r4.isOk() && r5.isOk() && r6.isOk() && r7.isOk()) {
+            return Result.ok(combine.apply(r1.get(), r2.get(), r3.get(), r4.get(), r5.get(), r6.get(), r7.get()));
+        }
+        List<E> errors = new ArrayList<>(errors(r1) + errors(r2) + errors(r3) + errors(r4) + errors(r5) + errors(r6) + errors(r7));
+        addError(errors, r1);
+        addError(errors, r2);
+        addError(errors, r3);
+        addError(errors, r4);
+        addError(errors, r5);
+        addError(errors, r6);
+        addError(errors, r7);
+        return Result.err(errors);
+    }
+
+    /**
+     * Combine the values of 8 results, or collect the errors of every one which failed.
+     *
+     * @param r1 The first result.
+     * @param r2 The second result.
+     * @param r3 The third result.
+     * @param r4 The fourth result.
+     * @param r5 The fifth result.
+     * @param r6 The sixth result.
+     * @param r7 The seventh result.
+     * @param r8 The eighth result.
+     * @param combine Combines the values if every result is Ok.
+     *
+     * @return Ok of the combined values, or Err of every error in argument order.
+     */
+    public static <T1, T2, T3, T4, T5, T6, T7, T8, E, R> Result<R, List<E>> zip8(
+            Result<? extends T1, ? extends E> r1,
+            Result<? extends T2, ? extends E> r2,
+            Result<? extends T3, ? extends E> r3,
+            Result<? extends T4, ? extends E> r4,
+            Result<? extends T5, ? extends E> r5,
+            Result<? extends T6, ? extends E> r6,
+            Result<? extends T7, ? extends E> r7,
+            Result<? extends T8, ? extends E> r8,
+            Function8<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? super T8, ? extends R> combine
+    ) {
+        if (r1.isOk() && r2.isOk() && r3.isOk() && r4.isOk() && r5.isOk() && r6.isOk() && r7.isOk() && r8.isOk()) {
+            return Result.ok(combine.apply(r1.get(), r2.get(), r3.get(), r4.get(), r5.get(), r6.get(), r7.get(), r8.get()));
+        }
+        List<E> errors = new ArrayList<>(errors(r1) + errors(r2) + errors(r3) + errors(r4) + errors(r5) + errors(r6) + errors(r7) + errors(r8));
+        addError(errors, r1);
+        addError(errors, r2);
+        addError(errors, r3);
+        addError(errors, r4);
+        addError(errors, r5);
+        addError(errors, r6);
+        addError(errors, r7);
+        addError(errors, r8);
+        return Result.err(errors);
+    }
+
+    private static int errors(Result<?, ?> result) {
+        return result.isOk() ? 0 : 1;
+    }
+
+    private static <E> void addError(List<E> errors, Result<?, ? extends E> result) {
+        if (result.hasError()) {
+            errors.add(result.getError());
+        }
+    }
+}
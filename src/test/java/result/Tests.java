@@ -1,13 +1,48 @@
 package result;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
 import org.junit.jupiter.api.Test;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class Tests {
     final int FUZZ_TEST_NUM = 100;
@@ -111,6 +146,28 @@ public class Tests {
         });
     }
 
+    @Test
+    void fromFunctionCapturesThrownErrorTest() {
+        fuzzString(s -> {
+            IllegalArgumentException unchecked = new IllegalArgumentException(s);
+            CustomException checked = new CustomException();
+            assertSame(unchecked, Result.fromFunction(() -> { throw unchecked; }).getError());
+            assertSame(checked, Result.fromFunction(() -> { throw checked; }).getError());
+            assertSame(unchecked, Result.fromFunction(() -> voidThrows(unchecked)).getError());
+            assertSame(checked, Result.fromFunction(() -> voidThrows(checked)).getError());
+
+            Throwable stackless = Result.fromFunction(() -> { throw new StacklessException(s); }).getError();
+            assertInstanceOf(StacklessException.class, stackless);
+            assertEquals(s, stackless.getMessage());
+            assertEquals(0, stackless.getStackTrace().length);
+            assertSame(unchecked, new StacklessException(s, unchecked).getCause());
+        });
+    }
+
+    private void voidThrows(Throwable t) throws Throwable {
+        throw t;
+    }
+
     private Integer throwsError(String s) {
         throw new IllegalArgumentException(s);
     }
@@ -382,6 +439,1683 @@ public class Tests {
         }
     }
 
+    @Test
+    void matchTableTest() {
+        MatchTable<String, Integer, String> table = MatchTable.of(
+                MatchArm.err(i -> i < 0, i -> "negative"),
+                MatchArm.error(404, i -> i + ": page not found"),
+                MatchArm.err(i -> i == 400, i -> i + ": Client Error"),
+                MatchArm.error(400, i -> "unreachable"),
+                MatchArm.error(404, i -> "unreachable"),
+                MatchArm.err(i -> i >= 500 && i < 600, i -> i + ": Server Error :("),
+                MatchArm.okay("admin", s -> "confidential"),
+                MatchArm.ok(s -> s.isEmpty(), s -> "empty")
+        );
+        Map<Result<String, Integer>, String> expected = Map.of(
+                Result.err(-1), "negative",
+                Result.err(404), "404: page not found",
+                Result.err(400), "400: Client Error",
+                Result.err(503), "503: Server Error :(",
+                Result.err(600), "Unknown error code: 600",
+                Result.ok("admin"), "confidential",
+                Result.ok(""), "empty",
+                Result.ok("other"), "other"
+        );
+        for (Result<String, Integer> response : expected.keySet()) {
+            assertEquals(expected.get(response), table.match(response, s -> s, e -> "Unknown error code: " + e));
+            assertEquals(expected.get(response), table.match(
+                    response,
+                    res -> res.map(s -> s).orElseGet(i -> "Unknown error code: " + i)
+            ));
+        }
+
+        MatchTable<String, Integer, String> empty = MatchTable.of(List.of());
+        assertEquals("ok", empty.match(Result.ok("x"), s -> "ok", e -> "err"));
+        assertEquals("err", empty.match(Result.err(1), res -> "err"));
+        assertThrows(NullPointerException.class, () -> MatchTable.of(MatchArm.error(1, i -> ""), null));
+    }
+
+    @Test
+    void pipelineTest() {
+        ResultPipeline<String, Integer, String> parse = Result.<String, String>lazy()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty(), s -> "empty")
+                .flatMap(s -> Result.fromFunction(() -> Integer.parseInt(s)).mapError(e -> "not a number"))
+                .map(i -> i * 2);
+
+        fuzzInt(i -> {
+            String s = " " + i + " ";
+            Result<Integer, String> eager = Result.<String, String>ok(s)
+                    .map(String::trim)
+                    .filter(v -> !v.isEmpty(), v -> "empty")
+                    .flatMap(v -> Result.fromFunction(() -> Integer.parseInt(v)).mapError(e -> "not a number"))
+                    .map(v -> v * 2);
+            assertEquals(eager, parse.apply(s));
+            assertEquals(Result.ok(i * 2), Result.<String, String>ok(s).flatMap(parse));
+        });
+        fuzzString(s -> assertEquals(Result.err("not a number"), parse.apply("x" + s)));
+        assertEquals(Result.err("empty"), parse.apply("  "));
+        assertEquals(Result.err(5), parse.mapError(String::length).apply(" "));
+        assertEquals(Result.ok(4), parse.mapError(String::length).apply("2"));
+        assertEquals(Result.ok("x"), Result.lazy().apply("x"));
+
+        assertThrows(NullPointerException.class, () -> parse.map(i -> null).apply("1"));
+        assertThrows(NullPointerException.class, () -> parse.apply(null));
+    }
+
+    @Test
+    void intResultTest() {
+        fuzzInt(i -> {
+            IntResult<String> ok = IntResult.ok(i);
+            IntResult<String> err = IntResult.err("bad");
+            assertTrue(ok.isOk());
+            assertTrue(err.hasError());
+            assertEquals(i, ok.getAsInt());
+            assertThrows(RuntimeException.class, err::getAsInt);
+            assertThrows(RuntimeException.class, ok::getError);
+            assertEquals("bad", err.getError());
+
+            assertEquals(IntResult.ok(i + 1), ok.map(v -> v + 1));
+            assertSame(err, err.map(v -> v + 1));
+            assertEquals(Result.ok("" + i), ok.mapToObj(v -> "" + v));
+            assertEquals(Result.err("bad"), err.mapToObj(v -> "" + v));
+            assertEquals(IntResult.err("odd"), ok.flatMap(v -> IntResult.err("odd")));
+            assertSame(err, err.flatMap(IntResult::ok));
+            assertSame(ok, ok.mapError(String::length));
+            assertEquals(IntResult.err(3), err.mapError(String::length));
+            assertSame(ok, ok.filter(v -> true, v -> "filtered"));
+            assertEquals(IntResult.err("filtered"), ok.filter(v -> false, v -> "filtered"));
+            assertSame(err, err.filter(v -> false, v -> "filtered"));
+            assertSame(ok, ok.or(() -> err));
+            assertSame(ok, err.or(() -> ok));
+            assertEquals(i, ok.orElse(0));
+            assertEquals(0, err.orElse(0));
+            assertEquals(i, ok.orElseGet(String::length));
+            assertEquals(3, err.orElseGet(String::length));
+            assertEquals("ok", ok.match(v -> "ok", e -> "err"));
+            assertEquals("err", err.match(v -> "ok", e -> "err"));
+            assertEquals(OptionalInt.of(i), ok.toOptional());
+            assertEquals(OptionalInt.empty(), err.toOptional());
+            assertEquals(Result.ok(i), ok.boxed());
+            assertEquals(Result.err("bad"), err.boxed());
+            assertEquals(ok, IntResult.from(ok.boxed()));
+            assertEquals(err, IntResult.from(err.boxed()));
+
+            Box<Integer> box = new Box<>(null);
+            ok.ifOk(box::value);
+            err.ifOk(v -> box.value(null));
+            assertEquals(i, box.value());
+        });
+    }
+
+    @Test
+    void longAndDoubleResultTest() {
+        fuzzInt(i -> {
+            long l = (long) i << 8;
+            LongResult<String> ok = LongResult.ok(l);
+            LongResult<String> err = LongResult.err("bad");
+            assertEquals(l, ok.getAsLong());
+            assertThrows(RuntimeException.class, err::getAsLong);
+            assertThrows(RuntimeException.class, ok::getError);
+            assertEquals(LongResult.ok(l + 1), ok.map(v -> v + 1));
+            assertSame(err, err.map(v -> v + 1));
+            assertEquals(Result.ok(l), ok.mapToObj(v -> v));
+            assertEquals(Result.err("bad"), err.mapToObj(v -> v));
+            assertEquals(LongResult.err("x"), ok.flatMap(v -> LongResult.err("x")));
+            assertSame(err, err.flatMap(LongResult::ok));
+            assertSame(ok, ok.mapError(String::length));
+            assertEquals(LongResult.err(3), err.mapError(String::length));
+            assertEquals(LongResult.err("f"), ok.filter(v -> false, v -> "f"));
+            assertSame(ok, ok.filter(v -> true, v -> "f"));
+            assertSame(err, err.filter(v -> true, v -> "f"));
+            assertSame(ok, err.or(() -> ok));
+            assertSame(ok, ok.or(() -> err));
+            assertEquals(0, err.orElse(0));
+            assertEquals(l, ok.orElse(0));
+            assertEquals(3, err.orElseGet(String::length));
+            assertEquals(l, ok.orElseGet(String::length));
+            assertEquals("err", err.match(v -> "ok", e -> "err"));
+            assertEquals("ok", ok.match(v -> "ok", e -> "err"));
+            assertEquals(OptionalLong.of(l), ok.toOptional());
+            assertEquals(OptionalLong.empty(), err.toOptional());
+            assertEquals(ok, LongResult.from(ok.boxed()));
+            assertEquals(err, LongResult.from(err.boxed()));
+            assertTrue(err.hasError());
+
+            double d = i / 3.0;
+            DoubleResult<String> dOk = DoubleResult.ok(d);
+            DoubleResult<String> dErr = DoubleResult.err("bad");
+            assertEquals(d, dOk.getAsDouble());
+            assertThrows(RuntimeException.class, dErr::getAsDouble);
+            assertThrows(RuntimeException.class, dOk::getError);
+            assertEquals(DoubleResult.ok(d * 2), dOk.map(v -> v * 2));
+            assertSame(dErr, dErr.map(v -> v * 2));
+            assertEquals(Result.ok(d), dOk.mapToObj(v -> v));
+            assertEquals(Result.err("bad"), dErr.mapToObj(v -> v));
+            assertEquals(DoubleResult.err("x"), dOk.flatMap(v -> DoubleResult.err("x")));
+            assertSame(dErr, dErr.flatMap(DoubleResult::ok));
+            assertSame(dOk, dOk.mapError(String::length));
+            assertEquals(DoubleResult.err(3), dErr.mapError(String::length));
+            assertEquals(DoubleResult.err("f"), dOk.filter(v -> false, v -> "f"));
+            assertSame(dOk, dOk.filter(v -> true, v -> "f"));
+            assertSame(dErr, dErr.filter(v -> true, v -> "f"));
+            assertSame(dOk, dErr.or(() -> dOk));
+            assertSame(dOk, dOk.or(() -> dErr));
+            assertEquals(0.5, dErr.orElse(0.5));
+            assertEquals(d, dOk.orElse(0.5));
+            assertEquals(3, dErr.orElseGet(String::length));
+            assertEquals(d, dOk.orElseGet(String::length));
+            assertEquals("err", dErr.match(v -> "ok", e -> "err"));
+            assertEquals("ok", dOk.match(v -> "ok", e -> "err"));
+            assertEquals(OptionalDouble.of(d), dOk.toOptional());
+            assertEquals(OptionalDouble.empty(), dErr.toOptional());
+            assertEquals(dOk, DoubleResult.from(dOk.boxed()));
+            assertEquals(dErr, DoubleResult.from(dErr.boxed()));
+            assertTrue(dOk.isOk());
+
+            Box<Double> box = new Box<>(null);
+            dOk.ifOk(box::value);
+            dErr.ifOk(v -> box.value(null));
+            ok.ifOk(v -> box.value(box.value() + v));
+            err.ifOk(v -> box.value(null));
+            assertEquals(d + l, box.value());
+        });
+    }
+
+    @Test
+    void asyncResultTest() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            fuzzInt(i -> {
+                AsyncResult<Integer, Throwable> ok = AsyncResult.fromFunction(() -> i, executor);
+                AsyncResult<Integer, Throwable> err = AsyncResult.fromFunction(() -> divide(i, 0), executor);
+
+                assertEquals(Result.ok(i), ok.join());
+                assertInstanceOf(ArithmeticException.class, err.join().getError());
+                assertEquals(Result.ok((long) i * 2), ok.map(v -> (long) v * 2).join());
+                assertTrue(err.map(v -> v * 2).join().hasError());
+                assertEquals(Result.err("bad"), ok.flatMap(v -> Result.err(new Error())).mapError(e -> "bad").join());
+                assertEquals(
+                        Result.ok("" + i),
+                        ok.flatMapAsync(v -> AsyncResult.fromFunction(() -> "" + v, executor)).join()
+                );
+                assertSame(err.join(), err.flatMapAsync(v -> AsyncResult.completed(Result.ok(v))).join());
+                assertEquals(Result.ok(0), err.or(() -> Result.ok(0)).join());
+                assertSame(ok.join(), ok.or(() -> Result.ok(0)).join());
+                assertEquals("ok", ok.match(v -> "ok", e -> "err").join());
+                assertEquals("err", err.match(v -> "ok", e -> "err").join());
+            });
+
+            CompletableFuture<Result<String, String>> pending = new CompletableFuture<>();
+            AsyncResult<Integer, String> chained = AsyncResult.of(pending).map(String::length);
+            assertFalse(chained.toCompletableFuture().isDone());
+            pending.complete(Result.ok("four"));
+            assertEquals(Result.ok(4), chained.join());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void allAndAnyTest() throws InterruptedException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        Duration timeout = Duration.ofSeconds(10);
+        try {
+            List<FallibleSupplier<Integer>> suppliers = IntStream.range(0, 50)
+                    .<FallibleSupplier<Integer>>mapToObj(i -> () -> i * i)
+                    .toList();
+            assertEquals(
+                    IntStream.range(0, 50).map(i -> i * i).boxed().toList(),
+                    Result.all(suppliers, executor, 4, timeout).get()
+            );
+            assertEquals(Result.ok(List.of()), Result.all(List.<FallibleSupplier<Integer>>of(), executor, 1, timeout));
+
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            FallibleSupplier<Integer> slow = () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(60_000);
+                    return 0;
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            };
+            FallibleSupplier<Integer> fails = () -> divide(1, 0);
+            // Only fail once the slow supplier is running, otherwise it is cancelled before it can be interrupted
+            FallibleSupplier<Integer> failsAfterStart = () -> started.await(10, TimeUnit.SECONDS) ? divide(1, 0) : 0;
+            assertInstanceOf(ArithmeticException.class, Result.all(List.of(slow, failsAfterStart), executor, 2, timeout).getError());
+            assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+
+            // A rejected submission still cancels the suppliers submitted before it
+            ExecutorService single = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+            FallibleSupplier<Integer> blocking = () -> {
+                Thread.sleep(60_000);
+                return 0;
+            };
+            try {
+                assertThrows(
+                        RejectedExecutionException.class,
+                        () -> Result.all(List.of(blocking, fails), single, 2, timeout)
+                );
+                single.shutdown();
+                assertTrue(single.awaitTermination(10, TimeUnit.SECONDS));
+            } finally {
+                single.shutdownNow();
+            }
+            assertInstanceOf(
+                    TimeoutException.class,
+                    Result.all(List.of(slow), executor, 1, Duration.ofMillis(10)).getError()
+            );
+
+            assertEquals(Result.ok(1), Result.any(List.of(slow, fails, () -> 1), executor, 3, timeout));
+            assertInstanceOf(ArithmeticException.class, Result.any(List.of(fails, fails), executor, 1, timeout).getError());
+            assertInstanceOf(
+                    NoSuchElementException.class,
+                    Result.any(List.<FallibleSupplier<Integer>>of(), executor, 1, timeout).getError()
+            );
+            assertThrows(IllegalArgumentException.class, () -> Result.any(suppliers, executor, 0, timeout));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void collectorsTest() {
+        List<Result<Integer, String>> oks = IntStream.range(0, 100).mapToObj(Result::<Integer, String>ok).toList();
+        List<Integer> values = IntStream.range(0, 100).boxed().toList();
+        List<Result<Integer, String>> mixed = List.of(Result.ok(1), Result.err("a"), Result.ok(2), Result.err("b"));
+
+        assertEquals(Result.ok(values), Result.sequence(oks.stream()));
+        assertEquals(Result.ok(values), oks.stream().collect(ResultCollectors.sequencing()));
+        assertEquals(Result.ok(values), oks.parallelStream().collect(ResultCollectors.sequencing()));
+        assertEquals(Result.err("a"), Result.sequence(mixed.stream()));
+        assertEquals(Result.err("a"), mixed.stream().collect(ResultCollectors.sequencing()));
+        assertEquals(Result.err("a"), mixed.parallelStream().collect(ResultCollectors.sequencing()));
+
+        // traverse must stop pulling from the stream after the first error
+        Box<Integer> pulled = new Box<>(0);
+        Result<List<Integer>, String> traversed = Result.traverse(
+                Stream.iterate(0, i -> i + 1).peek(i -> pulled.value(pulled.value() + 1)),
+                i -> i < 10 ? Result.ok(i) : Result.err("too big: " + i)
+        );
+        assertEquals(Result.err("too big: 10"), traversed);
+        assertEquals(11, pulled.value());
+        assertEquals(
+                Result.ok(List.of("0", "1")),
+                Stream.of(0, 1).collect(ResultCollectors.traversing(i -> Result.ok("" + i)))
+        );
+
+        ResultCollectors.Partition<Integer, String> partition = new ResultCollectors.Partition<>(
+                List.of(1, 2), List.of("a", "b")
+        );
+        assertEquals(partition, mixed.stream().collect(ResultCollectors.partitioning()));
+        assertEquals(partition, mixed.parallelStream().collect(ResultCollectors.partitioning()));
+        assertEquals(partition, ResultCollectors.partition(mixed));
+
+        assertEquals(Result.err(List.of("a", "b")), mixed.parallelStream().collect(ResultCollectors.collectingErrors()));
+        assertEquals(Result.ok(values), oks.parallelStream().collect(ResultCollectors.collectingErrors()));
+
+        // The context of an Err is kept, as it is by a pipeline
+        List<Result<Integer, String>> traced = List.of(
+                Result.ok(1),
+                Result.<Integer, String>err("a").withContext("trace", "t1").withContext("stage", "parse"),
+                Result.<Integer, String>err("b").withContext("trace", "t2")
+        );
+        ResultContext first = ResultContext.of("trace", "t1").with("stage", "parse");
+        assertEquals(first, Result.sequence(traced.stream()).context());
+        assertEquals(first, traced.stream().collect(ResultCollectors.sequencing()).context());
+        assertEquals(first, traced.parallelStream().collect(ResultCollectors.sequencing()).context());
+        assertEquals(
+                ResultContext.of("trace", "t2").with("stage", "parse").toMap(),
+                traced.parallelStream().collect(ResultCollectors.collectingErrors()).context().toMap()
+        );
+    }
+
+    @Test
+    void parallelTraverseTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Integer> elements = IntStream.range(0, 10_000).boxed().toList();
+            assertEquals(
+                    Result.ok(elements.stream().map(i -> "" + i).toList()),
+                    Result.parallelTraverse(elements, i -> Result.ok("" + i), pool)
+            );
+            assertEquals(Result.ok(List.of()), Result.parallelTraverse(List.of(), Result::ok, pool));
+            assertEquals(
+                    ResultContext.of("index", 5),
+                    Result.parallelTraverse(elements, i -> i == 5 ? Result.err("bad").withContext("index", i) : Result.ok(i), pool).context()
+            );
+
+            fuzzInt(x -> {
+                int bad = Math.floorMod(x, elements.size());
+                Function<Integer, Result<Integer, String>> validate = i -> i >= bad && i % 7 == bad % 7
+                        ? Result.err("bad " + i)
+                        : Result.ok(i);
+                assertEquals(Result.err("bad " + bad), Result.parallelTraverse(elements, validate, pool));
+                assertEquals(Result.traverse(elements.stream(), validate), Result.parallelTraverse(elements, validate, pool));
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void internerTest() {
+        assertSame(Result.fromFunction(() -> {}), Result.fromFunction(() -> {}));
+        assertNull(Result.fromFunction(() -> {}).get());
+
+        ResultInterner interner = new ResultInterner(2);
+        assertSame(interner.ok(true), interner.ok(Boolean.TRUE));
+        assertSame(interner.err(false), interner.err(false));
+        assertNotSame(interner.ok(true), interner.err(true));
+        assertSame(interner.ok(-128), interner.ok(-128));
+        assertSame(interner.ok(127), interner.ok(127));
+        assertSame(interner.err(TimeUnit.SECONDS), interner.err(TimeUnit.SECONDS));
+        assertEquals(Result.err(TimeUnit.DAYS), interner.err(TimeUnit.DAYS));
+        assertEquals(Result.ok(true), interner.ok(true));
+        assertEquals(0, interner.misses());
+        assertEquals(0, interner.size());
+
+        Result<Object, String> a = interner.err("a");
+        assertSame(a, interner.err("a"));
+        assertEquals(1, interner.misses());
+        interner.err("b");
+        interner.err("c");
+        assertEquals(2, interner.size());
+        // a was used again, so the clock gave it a second chance and evicted b instead
+        assertSame(a, interner.err("a"));
+        assertEquals(Result.err("b"), interner.err("b"));
+        assertEquals(4, interner.misses());
+        assertSame(interner.ok(1000), interner.ok(1000));
+        assertEquals(3, interner.size());
+        assertEquals(5, interner.misses());
+        assertEquals(17, interner.hits());
+
+        ResultInterner tablesOnly = new ResultInterner(0);
+        assertNotSame(tablesOnly.ok("x"), tablesOnly.ok("x"));
+        assertEquals(Result.ok("x"), tablesOnly.ok("x"));
+        assertEquals(0, tablesOnly.size());
+        assertThrows(IllegalArgumentException.class, () -> new ResultInterner(-1));
+        assertThrows(NullPointerException.class, () -> interner.ok(null));
+    }
+
+    @Test
+    void unwrapExceptionTest() {
+        Box<Integer> toStringCalls = new Box<>(0);
+        Object error = new Object() {
+            @Override
+            public String toString() {
+                toStringCalls.value(toStringCalls.value() + 1);
+                return "expensive";
+            }
+        };
+        UnwrapException e = assertThrows(UnwrapException.class, () -> Result.err(error).get());
+        assertEquals(0, toStringCalls.value());
+        assertFalse(e.isOkVariant());
+        assertNull(e.getCause());
+        assertEquals("Result is error variant with value: expensive", e.getMessage());
+        assertEquals(1, toStringCalls.value());
+
+        IllegalStateException cause = new IllegalStateException();
+        assertSame(cause, assertThrows(UnwrapException.class, () -> Result.err(cause).get()).getCause());
+        assertSame(cause, assertThrows(UnwrapException.class, () -> IntResult.err(cause).getAsInt()).getCause());
+
+        UnwrapException okError = assertThrows(UnwrapException.class, () -> Result.ok(1).getError());
+        assertTrue(okError.isOkVariant());
+        assertEquals("Ok[value=1]: Is of the Ok Variant", okError.getMessage());
+        assertThrows(NoSuchElementException.class, () -> LongResult.ok(1).getError());
+    }
+
+    @Test
+    void instrumentationTest() throws Exception {
+        assumeTrue(Instrumentation.ENABLED);
+        ResultMetrics metrics = new ResultMetrics(2);
+        Instrumentation.install(metrics);
+        try {
+            Result.ok(1);
+            Result.err("a");
+            Result.fromFunction(() -> 1);
+            Instrumentation.scope("divide", () -> Result.fromFunction(() -> divide(1, 0)));
+            Result.fromFunction(() -> {});
+            Result.ok(0).filter(x -> x != 0, x -> new IllegalStateException());
+            Result.<Integer, Object>err(new IllegalStateException()).or(() -> Result.err(1L));
+            Result.match(Result.<Integer, Integer>err(1), r -> "", MatchArm.error(1, e -> "one"));
+            Result.match(Result.<Integer, Integer>ok(1), v -> "", e -> "");
+            MatchTable.<Integer, Integer, String>of().match(Result.err(2), v -> "", e -> "");
+        } finally {
+            Instrumentation.uninstall();
+        }
+        Result.err(new Error());
+
+        ResultMetrics.Snapshot snapshot = metrics.snapshot(1);
+        assertEquals(2, snapshot.okCounts().get(ResultListener.Operation.FROM_FUNCTION));
+        assertEquals(1, snapshot.errCounts().get(ResultListener.Operation.FROM_FUNCTION));
+        assertEquals(0, snapshot.okCounts().get(ResultListener.Operation.FILTER));
+        assertEquals(1, snapshot.errCounts().get(ResultListener.Operation.FILTER));
+        assertEquals(1, snapshot.errCounts().get(ResultListener.Operation.OR));
+        assertEquals(1, snapshot.okCounts().get(ResultListener.Operation.MATCH));
+        assertEquals(2, snapshot.errCounts().get(ResultListener.Operation.MATCH));
+        assertEquals(2, snapshot.okCountsBySite().get("").get(ResultListener.Operation.FROM_FUNCTION));
+        assertEquals(0, snapshot.errCountsBySite().get("").get(ResultListener.Operation.FROM_FUNCTION));
+        assertEquals(1, snapshot.errCountsBySite().get("divide").get(ResultListener.Operation.FROM_FUNCTION));
+        // only the user-visible operations are counted, not the results built inside them
+        assertEquals(Map.of(Integer.class, 3L), snapshot.errorClasses());
+        assertEquals(2, snapshot.untrackedErrors());
+
+        ObjectName name = new ObjectName("result:type=ResultMetrics,name=test");
+        metrics.register(name.toString());
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(2L, server.getAttribute(name, "UntrackedErrors"));
+            assertEquals(Map.of("java.lang.Integer", 3L, "java.lang.Long", 2L), metrics.getTopErrorClasses());
+            assertEquals(2L, metrics.getOkCounts().get("FROM_FUNCTION"));
+            assertEquals(1L, metrics.getErrCountsBySite().get("divide").get("FROM_FUNCTION"));
+            assertEquals(1L, metrics.getErrCounts().get("OR"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, metrics.getErrCounts().get("OR"));
+            assertEquals(Map.of(), metrics.getTopErrorClasses());
+            assertThrows(IllegalStateException.class, () -> metrics.register(name.toString()));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+
+    @Test
+    void instrumentationStageTest() {
+        assumeTrue(Instrumentation.ENABLED);
+        ResultPipeline<String, Integer, String> parse = Result.<String, String>lazy()
+                .stage("trim")
+                .map(String::trim)
+                .filter(s -> !s.isEmpty(), s -> "empty")
+                .stage("parse")
+                .flatMap(s -> Result.fromFunction(() -> Integer.parseInt(s)).mapError(Throwable::getMessage));
+        ResultMetrics metrics = new ResultMetrics(2);
+        Instrumentation.install(metrics);
+        try {
+            parse.apply(" ");
+            parse.apply("x");
+            parse.apply(" 12 ");
+            Instrumentation.scope("outer", () -> Instrumentation.scope("inner", () -> Result.fromFunction(() -> 1)));
+            Instrumentation.scope("outer", () -> Result.lazy().apply(1));
+        } finally {
+            Instrumentation.uninstall();
+        }
+
+        ResultMetrics.Snapshot snapshot = metrics.snapshot(2);
+        assertEquals(1, snapshot.errCountsBySite().get("trim").get(ResultListener.Operation.PIPELINE));
+        assertEquals(1, snapshot.errCountsBySite().get("parse").get(ResultListener.Operation.PIPELINE));
+        assertEquals(1, snapshot.okCountsBySite().get("parse").get(ResultListener.Operation.PIPELINE));
+        assertEquals(0, snapshot.okCountsBySite().get("trim").get(ResultListener.Operation.PIPELINE));
+        // the fromFunction in the parse step runs outside of any scope
+        assertEquals(1, snapshot.errCountsBySite().get("").get(ResultListener.Operation.FROM_FUNCTION));
+        assertEquals(1, snapshot.okCountsBySite().get("inner").get(ResultListener.Operation.FROM_FUNCTION));
+        // an unnamed stage falls back to the enclosing scope
+        assertEquals(1, snapshot.okCountsBySite().get("outer").get(ResultListener.Operation.PIPELINE));
+        assertEquals(0, snapshot.okCountsBySite().get("outer").get(ResultListener.Operation.FROM_FUNCTION));
+        assertEquals(2, snapshot.errCounts().get(ResultListener.Operation.PIPELINE));
+        assertThrows(NullPointerException.class, () -> parse.stage(null));
+    }
+
+    @Test
+    void instrumentationDisabledTest() {
+        assumeFalse(Instrumentation.ENABLED);
+        ResultMetrics metrics = new ResultMetrics(2);
+        Instrumentation.install(metrics);
+        try {
+            Result.err("a");
+            Result.fromFunction(() -> divide(1, 0));
+            assertThrows(NullPointerException.class, () -> Result.err(null));
+        } finally {
+            Instrumentation.uninstall();
+        }
+        assertEquals(0, metrics.snapshot(2).errCounts().get(ResultListener.Operation.FROM_FUNCTION));
+        assertEquals(Map.of(), metrics.getTopErrorClasses());
+    }
+
+    @Test
+    void heavyHittersTest() {
+        ResultMetrics metrics = new ResultMetrics(2);
+        for (int i = 0; i < 3; i++) {
+            metrics.onErr(ResultListener.Operation.FROM_FUNCTION, "", "a");
+        }
+        metrics.onErr(ResultListener.Operation.FROM_FUNCTION, "", 1);
+        for (int i = 0; i < 5; i++) {
+            metrics.onErr(ResultListener.Operation.FROM_FUNCTION, "", 1L);
+        }
+        // Long replaced Integer and inherited its count of 1
+        assertEquals(Map.of("java.lang.Long", 6L, "java.lang.String", 3L), metrics.getTopErrorClasses());
+        assertEquals(1, metrics.getUntrackedErrors());
+        assertThrows(NullPointerException.class, () -> metrics.onErr(ResultListener.Operation.FROM_FUNCTION, "", null));
+
+        HeavyHitters<String> left = new HeavyHitters<>(2);
+        HeavyHitters<String> right = new HeavyHitters<>(2);
+        left.add("x", 5);
+        left.add("y", 3);
+        right.add("z", 4);
+        right.add("y", 2);
+        HeavyHitters<String> merged = new HeavyHitters<>(2);
+        merged.merge(left);
+        merged.merge(right);
+        HeavyHitters<String> reversed = new HeavyHitters<>(2);
+        reversed.merge(right);
+        reversed.merge(left);
+        // y was counted in both, so its count is exact, x and z may have been counted by the table missing them
+        List<HeavyHitters.Entry<String>> expected = List.of(new HeavyHitters.Entry<>("x", 7, 2), new HeavyHitters.Entry<>("z", 7, 3));
+        assertEquals(expected, merged.entries());
+        assertEquals(expected, reversed.entries());
+        assertEquals(5, merged.untracked());
+
+        HeavyHitters<String> none = new HeavyHitters<>(0);
+        none.add("x");
+        none.merge(left);
+        assertEquals(List.of(), none.entries());
+        assertEquals(9, none.untracked());
+        none.clear();
+        assertEquals(0, none.untracked());
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters<>(-1));
+    }
+
+    @Test
+    void retryTest() throws Exception {
+        int[] calls = {0};
+        FallibleSupplier<Integer> flaky = () -> ++calls[0] < 3 ? divide(1, 0) : calls[0];
+        assertEquals(Result.ok(3), Result.retry(flaky, RetryPolicy.attempts(3)));
+
+        calls[0] = 0;
+        Result<Integer, Throwable> exhausted = Result.retry(flaky, RetryPolicy.attempts(2));
+        assertInstanceOf(ArithmeticException.class, exhausted.getError());
+        assertEquals(2, calls[0]);
+
+        calls[0] = 0;
+        Result<Integer, Throwable> notRetried = Result.retry(
+                flaky,
+                RetryPolicy.attempts(5).retryIf(e -> !(e instanceof ArithmeticException))
+        );
+        assertTrue(notRetried.hasError());
+        assertEquals(1, calls[0]);
+
+        calls[0] = 0;
+        RetryPolicy slow = RetryPolicy.attempts(5)
+                .withBackoff(Duration.ofMillis(20), 2, Duration.ofMillis(30))
+                .withJitter(0.5)
+                .withDeadline(Duration.ofMillis(10));
+        assertTrue(Result.retry(flaky, slow).hasError());
+        assertEquals(1, calls[0]);
+
+        RetryPolicy backoff = RetryPolicy.attempts(5).withBackoff(Duration.ofMillis(10), 2, Duration.ofMillis(30));
+        assertEquals(Duration.ofMillis(10).toNanos(), backoff.delayNanos(1));
+        assertEquals(Duration.ofMillis(20).toNanos(), backoff.delayNanos(2));
+        assertEquals(Duration.ofMillis(30).toNanos(), backoff.delayNanos(3));
+
+        calls[0] = 0;
+        Thread.currentThread().interrupt();
+        Result<Integer, Throwable> interrupted = Result.retry(flaky, backoff);
+        assertTrue(Thread.interrupted());
+        assertInstanceOf(InterruptedException.class, interrupted.getError());
+
+        // Being unparked early doesn't cut the wait short
+        long[] waited = {0};
+        Thread retrying = new Thread(() -> {
+            long begin = System.nanoTime();
+            int[] attempts = {0};
+            Result.retry(() -> ++attempts[0] < 2 ? divide(1, 0) : 0, RetryPolicy.attempts(2).withBackoff(Duration.ofMillis(200), 1, Duration.ofMillis(200)));
+            waited[0] = System.nanoTime() - begin;
+        });
+        retrying.start();
+        while (retrying.isAlive()) {
+            LockSupport.unpark(retrying);
+            Thread.sleep(5);
+        }
+        assertTrue(waited[0] >= Duration.ofMillis(200).toNanos());
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            calls[0] = 0;
+            RetryPolicy quick = RetryPolicy.attempts(3).withBackoff(Duration.ofMillis(1), 2, Duration.ofMillis(5));
+            assertEquals(Result.ok(3), Result.retryAsync(flaky, quick, scheduler).join());
+            calls[0] = 0;
+            assertTrue(Result.retryAsync(flaky, RetryPolicy.attempts(2), scheduler).join().hasError());
+            assertEquals(2, calls[0]);
+            calls[0] = 0;
+            // a throwing predicate fails the async result rather than leaving it incomplete
+            IllegalStateException thrown = new IllegalStateException();
+            RetryPolicy throwing = RetryPolicy.attempts(2).retryIf(e -> {
+                throw thrown;
+            });
+            AsyncResult<Integer, Throwable> failed = Result.retryAsync(flaky, throwing, scheduler);
+            assertSame(thrown, assertThrows(CompletionException.class, () -> failed.join()).getCause());
+        } finally {
+            scheduler.shutdown();
+        }
+        assertInstanceOf(
+                RejectedExecutionException.class,
+                Result.retryAsync(flaky, RetryPolicy.attempts(1), scheduler).join().getError()
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.attempts(0));
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.attempts(1).withJitter(2));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> RetryPolicy.attempts(1).withBackoff(Duration.ZERO, 0.5, Duration.ZERO)
+        );
+        assertThrows(NullPointerException.class, () -> RetryPolicy.attempts(1).retryIf(null));
+    }
+
+    @Test
+    void circuitBreakerTest() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.of(4, 0.5, 2, Duration.ofMillis(50));
+        int[] calls = {0};
+        FallibleSupplier<Integer> fails = () -> {
+            calls[0]++;
+            return divide(1, 0);
+        };
+        FallibleSupplier<Integer> succeeds = () -> ++calls[0];
+
+        assertEquals(Result.ok(1), breaker.call(succeeds));
+        assertEquals(Result.ok(2), breaker.call(succeeds));
+        assertEquals(Result.ok(3), breaker.call(succeeds));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertInstanceOf(ArithmeticException.class, breaker.call(fails).getError());
+        assertEquals(0.25, breaker.failureRate());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        // The window only holds 4 calls, so this failure replaces the first success
+        breaker.call(fails);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(0.5, breaker.failureRate());
+
+        calls[0] = 0;
+        Result<Integer, Throwable> rejected = breaker.call(succeeds);
+        assertInstanceOf(CircuitOpenException.class, rejected.getError());
+        assertEquals(0, rejected.getError().getStackTrace().length);
+        assertSame(rejected, breaker.call(fails));
+        assertEquals(0, calls[0]);
+
+        Thread.sleep(60);
+        assertInstanceOf(ArithmeticException.class, breaker.call(fails).getError());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertSame(rejected, breaker.call(succeeds));
+        assertEquals(1, calls[0]);
+
+        Thread.sleep(60);
+        assertEquals(Result.ok(2), breaker.call(succeeds));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, breaker.failureRate());
+
+        // A probe which throws opens the breaker again instead of leaving it half-open
+        CircuitBreaker probed = CircuitBreaker.of(1, 1, 1, Duration.ofMillis(20));
+        probed.call(fails);
+        Thread.sleep(30);
+        assertThrows(NullPointerException.class, () -> probed.call(null));
+        assertEquals(CircuitBreaker.State.OPEN, probed.state());
+        if (Instrumentation.ENABLED) {
+            IllegalStateException thrown = new IllegalStateException();
+            Instrumentation.install(new ResultListener() {
+                @Override
+                public void onOk(ResultListener.Operation operation, String site) {
+                    throw thrown;
+                }
+
+                @Override
+                public void onErr(ResultListener.Operation operation, String site, Object error) {
+                    throw thrown;
+                }
+            });
+            try {
+                assertSame(thrown, assertThrows(IllegalStateException.class, () -> probed.call(succeeds)));
+            } finally {
+                Instrumentation.uninstall();
+            }
+            assertEquals(CircuitBreaker.State.OPEN, probed.state());
+            assertInstanceOf(CircuitOpenException.class, probed.call(succeeds).getError());
+            Thread.sleep(30);
+        }
+        assertTrue(probed.call(succeeds).isOk());
+        assertEquals(CircuitBreaker.State.CLOSED, probed.state());
+
+        CircuitBreaker shared = CircuitBreaker.of(100, 0.9, 50, Duration.ofMinutes(1));
+        IntStream.range(0, 10_000).parallel().forEach(i -> shared.call(() -> i));
+        assertEquals(CircuitBreaker.State.CLOSED, shared.state());
+        IntStream.range(0, 10_000).parallel().forEach(i -> shared.call(() -> divide(i, 0)));
+        assertEquals(CircuitBreaker.State.OPEN, shared.state());
+
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of(0, 0.5, 1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of(1, 0, 1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of(1, 0.5, 2, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of(1, 0.5, 1, Duration.ofMillis(-1)));
+    }
+
+    @Test
+    void resultCacheTest() throws Exception {
+        ResultCache<Integer, Integer, String> cache = new ResultCache<>(4, Duration.ofMinutes(1), Duration.ofMillis(20));
+        Function<Integer, Result<Integer, String>> loader = k -> k < 0 ? Result.err("negative") : Result.ok(k * 2);
+
+        assertNull(cache.getIfPresent(1));
+        assertEquals(Result.ok(2), cache.get(1, loader));
+        assertEquals(Result.ok(2), cache.getIfPresent(1));
+        assertSame(cache.get(1, loader), cache.get(1, loader));
+        assertEquals(1, cache.loads());
+        assertEquals(2, cache.hits());
+
+        assertEquals(Result.err("negative"), cache.get(-1, loader));
+        cache.get(-1, loader);
+        assertEquals(2, cache.loads());
+        Thread.sleep(30);
+        assertNull(cache.getIfPresent(-1));
+        cache.get(-1, loader);
+        assertEquals(3, cache.loads());
+        assertNotNull(cache.getIfPresent(1));
+
+        // Least recently used keys are evicted once the cache is full
+        IntStream.range(10, 20).forEach(k -> cache.get(k, loader));
+        assertTrue(cache.size() <= 4);
+        assertNull(cache.getIfPresent(10));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        cache.get(1, loader);
+        cache.invalidate(1);
+        assertNull(cache.getIfPresent(1));
+
+        ResultCache<String, Integer, Throwable> shared = new ResultCache<>(100, Duration.ofMinutes(1), Duration.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, Result<Integer, Throwable>> slowLoader = k -> Result.fromFunction(() -> {
+            release.await();
+            return k.length();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Result<Integer, Throwable>>> futures = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> shared.get("cold", slowLoader), executor))
+                    .toList();
+            while (shared.hits() < 7) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            futures.forEach(f -> assertEquals(Result.ok(4), f.join()));
+            assertEquals(1, shared.loads());
+
+            Function<String, Result<Integer, Throwable>> throwing = k -> {
+                throw new IllegalStateException(k);
+            };
+            assertThrows(IllegalStateException.class, () -> shared.get("boom", throwing));
+            assertEquals(Result.ok(4), shared.get("boom", slowLoader));
+
+            // A key still loading isn't evicted to make room, so its load stays single-flight
+            ResultCache<String, Integer, Throwable> tiny = new ResultCache<>(1, Duration.ofMinutes(1), Duration.ZERO);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch finish = new CountDownLatch(1);
+            CompletableFuture<Result<Integer, Throwable>> pending = CompletableFuture.supplyAsync(() -> tiny.get("pending", k -> {
+                started.countDown();
+                return Result.fromFunction(() -> {
+                    finish.await();
+                    return k.length();
+                });
+            }), executor);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            assertEquals(Result.ok(5), tiny.get("other", slowLoader));
+            CompletableFuture<Result<Integer, Throwable>> waiting = CompletableFuture.supplyAsync(() -> tiny.get("pending", slowLoader), executor);
+            // Had the pending key been evicted, the second lookup would load it again and finish by itself
+            while (tiny.hits() < 1 && !waiting.isDone()) {
+                Thread.onSpinWait();
+            }
+            finish.countDown();
+            assertEquals(Result.ok(7), pending.join());
+            assertEquals(Result.ok(7), waiting.join());
+            assertEquals(2, tiny.loads());
+            tiny.get("third", slowLoader);
+            assertEquals(1, tiny.size());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache<>(0, Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache<>(1, Duration.ofMillis(-1), Duration.ZERO));
+    }
+
+    @Test
+    void memoizeTest() throws Exception {
+        int[] calls = {0};
+        Supplier<Result<Integer, Throwable>> memoized = Result.memoize(() -> ++calls[0]);
+        assertEquals(0, calls[0]);
+        assertEquals(Result.ok(1), memoized.get());
+        assertEquals(Result.ok(1), memoized.get());
+        assertEquals(1, calls[0]);
+
+        Supplier<Result<Integer, Throwable>> failing = Result.memoize(() -> divide(++calls[0], 0));
+        Result<Integer, Throwable> error = failing.get();
+        assertInstanceOf(ArithmeticException.class, error.getError());
+        assertSame(error, failing.get());
+        assertEquals(2, calls[0]);
+
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Result<Integer, Throwable>> slow = Result.memoize(() -> {
+            release.await();
+            return ++calls[0];
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<CompletableFuture<Result<Integer, Throwable>>> futures = IntStream.range(0, 4)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(slow, executor))
+                    .toList();
+            release.countDown();
+            futures.forEach(f -> assertEquals(Result.ok(3), f.join()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void jsonCodecTest() throws Exception {
+        List<Result<List<Integer>, String>> results = List.of(Result.ok(List.of(1, 2)), Result.err("bad \"input\""));
+        String json = "[{\"ok\":[1,2]},{\"err\":\"bad \\\"input\\\"\"}]";
+        Type listType = new TypeToken<List<Result<List<Integer>, String>>>() {}.getType();
+        Type voidType = new TypeToken<Result<Void, String>>() {}.getType();
+
+        ObjectMapper jackson = new ObjectMapper().registerModule(new ResultJacksonModule());
+        assertEquals(json, jackson.writeValueAsString(results));
+        assertEquals(results, jackson.readValue(json, new TypeReference<List<Result<List<Integer>, String>>>() {}));
+        assertEquals(Result.ok(Map.of("a", 1)), jackson.readValue("{\"ok\":{\"a\":1}}", Result.class));
+        assertEquals("{\"ok\":null}", jackson.writeValueAsString(Result.fromFunction(() -> {})));
+        assertEquals(Result.fromFunction(() -> {}), jackson.readValue("{\"ok\":null}", jackson.constructType(voidType)));
+        assertThrows(JsonProcessingException.class, () -> jackson.readValue("{\"ok\":null}", Result.class));
+        assertThrows(JsonProcessingException.class, () -> jackson.readValue("{\"value\":1}", Result.class));
+        assertThrows(JsonProcessingException.class, () -> jackson.readValue("{\"err\":null}", Result.class));
+        assertThrows(JsonProcessingException.class, () -> jackson.readValue("{\"ok\":1,\"err\":2}", Result.class));
+
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(new ResultGsonAdapterFactory()).create();
+        assertEquals(json, gson.toJson(results, listType));
+        assertEquals(results, gson.fromJson(json, listType));
+        assertEquals("{\"ok\":1}", gson.toJson(Result.ok(1)));
+        assertEquals("{\"ok\":null}", gson.toJson(Result.fromFunction(() -> {})));
+        assertEquals(Result.fromFunction(() -> {}), gson.fromJson("{\"ok\":null}", voidType));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"ok\":null}", Result.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"value\":1}", Result.class));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"ok\":1,\"err\":2}", Result.class));
+        assertThrows(JsonParseException.class, () -> gson.getAdapter(Result.class).fromJson("{}"));
+        assertThrows(JsonParseException.class, () -> gson.getAdapter(Result.class).fromJson("[1]"));
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{}", Result.class));
+
+        ResultFastjsonModule.register();
+        ResultFastjsonModule.register();
+        assertEquals(json, JSON.toJSONString(results));
+        assertEquals(results, JSON.parseObject(json, listType));
+        assertEquals(Result.ok(1), JSON.parseObject("{\"ok\":1}", Result.class));
+        assertEquals(Result.fromFunction(() -> {}), JSON.parseObject("{\"ok\":null}", voidType));
+        assertThrows(JSONException.class, () -> JSON.parseObject("{\"ok\":null}", Result.class));
+        assertThrows(JSONException.class, () -> JSON.parseObject("{\"value\":1}", Result.class));
+        assertThrows(JSONException.class, () -> JSON.parseObject("[1]", Result.class));
+        assertThrows(JSONException.class, () -> JSON.parseObject("{\"ok\":1,\"err\":2}", Result.class));
+    }
+
+    @Test
+    void binaryCodecTest() {
+        ResultCodec<Integer, String> codec = ResultCodec.of(BinaryCodec.INT, BinaryCodec.STRING);
+        fuzzInt(x -> {
+            Result<Integer, String> ok = Result.ok(x);
+            ByteBuffer buffer = ByteBuffer.allocate(codec.sizeOf(ok));
+            codec.write(ok, buffer);
+            assertFalse(buffer.hasRemaining());
+            assertEquals(ok, codec.read(buffer.flip()));
+            assertFalse(buffer.hasRemaining());
+        });
+        fuzzString(s -> {
+            Result<Integer, String> err = Result.err(s + "\u00e9\u20ac\ud83d\ude00");
+            ByteBuffer buffer = ByteBuffer.allocateDirect(codec.sizeOf(err));
+            codec.write(err, buffer);
+            assertFalse(buffer.hasRemaining());
+            assertEquals(err, codec.read(buffer.flip()));
+        });
+
+        List<Result<Integer, String>> results = IntStream.range(0, 100)
+                .mapToObj(i -> i % 3 == 0 ? Result.<Integer, String>err("e" + i) : Result.<Integer, String>ok(i))
+                .toList();
+        for (ByteBuffer buffer : List.of(ByteBuffer.allocate(codec.sizeOfAll(results) + 8), ByteBuffer.allocateDirect(codec.sizeOfAll(results) + 8))) {
+            buffer.putInt(-1);
+            codec.writeAll(results, buffer);
+            buffer.putInt(-2);
+            assertFalse(buffer.hasRemaining());
+            buffer.flip().getInt();
+
+            ResultView<Integer, String> view = codec.view(buffer);
+            assertEquals(-2, buffer.getInt());
+            assertEquals(results, view);
+            assertEquals(66, view.okCount());
+            assertTrue(view.isOk(1));
+            assertFalse(view.isOk(3));
+            assertEquals(1, view.getOk(1));
+            assertEquals("e3", view.getError(3));
+            assertThrows(UnwrapException.class, () -> view.getOk(3));
+            assertThrows(UnwrapException.class, () -> view.getError(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> view.get(100));
+
+            buffer.position(4);
+            assertEquals(results, codec.readAll(buffer));
+        }
+
+        ByteBuffer empty = ByteBuffer.allocate(codec.sizeOfAll(List.of()));
+        codec.writeAll(List.of(), empty);
+        assertEquals(List.of(), codec.readAll(empty.flip()));
+        assertFalse(empty.hasRemaining());
+
+        ResultCodec<Long, Double> numbers = ResultCodec.of(BinaryCodec.LONG, BinaryCodec.DOUBLE);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        numbers.write(Result.ok(Long.MAX_VALUE), buffer);
+        numbers.write(Result.err(0.5), buffer);
+        buffer.flip();
+        assertEquals(Result.ok(Long.MAX_VALUE), numbers.read(buffer));
+        assertEquals(Result.err(0.5), numbers.read(buffer));
+        assertThrows(IllegalArgumentException.class, () -> numbers.read(ByteBuffer.wrap(new byte[]{7, 0, 0, 0, 0})));
+    }
+
+    @Test
+    void resultBatchTest() {
+        List<Result<Integer, String>> results = IntStream.range(0, 200)
+                .mapToObj(i -> i % 3 == 0 ? Result.<Integer, String>err("e" + i) : Result.<Integer, String>ok(i))
+                .toList();
+        ResultBatch<Integer, String> batch = ResultBatch.from(results);
+        assertEquals(200, batch.size());
+        assertEquals(133, batch.okCount());
+        assertEquals(67, batch.errCount());
+        assertEquals(results, batch.toList());
+        assertEquals("e3", batch.getError(3));
+        assertEquals(199, batch.getOk(199));
+        assertThrows(UnwrapException.class, () -> batch.getOk(0));
+        assertThrows(UnwrapException.class, () -> batch.getError(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.get(200));
+        assertEquals(results.stream().filter(Result::isOk).map(Result::get).toList(), batch.values());
+        assertEquals(results.stream().filter(Result::hasError).map(Result::getError).toList(), batch.errors());
+
+        Function<Result<Integer, String>, Result<String, Integer>> perResult = r -> r
+                .filter(v -> v % 2 == 0, v -> "odd " + v)
+                .map(v -> "v" + v)
+                .mapError(String::length);
+        ResultBatch<String, Integer> mapped = batch
+                .filter(v -> v % 2 == 0, v -> "odd " + v)
+                .map(v -> "v" + v)
+                .mapError(String::length);
+        assertEquals(results.stream().map(perResult).toList(), mapped.toList());
+        assertSame(batch, batch.filter(v -> true, v -> "never"));
+        assertEquals(66, batch.count(v -> v % 2 == 0));
+        assertEquals(List.of(), ResultBatch.<Integer, String>builder().build().toList());
+        assertEquals(
+                List.of(Result.ok(1), Result.err("x")),
+                ResultBatch.<Integer, String>builder().addOk(1).addErr("x").build().toList()
+        );
+        assertThrows(NullPointerException.class, () -> ResultBatch.<Integer, String>builder().addOk(null));
+        Result<Void, Throwable> empty = Result.fromFunction(() -> {});
+        assertSame(empty, ResultBatch.<Void, Throwable>builder().add(empty).build().get(0));
+
+        // a rejected null error leaves the builder as it was
+        ResultBatch.Builder<Integer, String> rejecting = ResultBatch.<Integer, String>builder().addErr("a");
+        assertThrows(NullPointerException.class, () -> rejecting.addErr(null));
+        assertEquals(List.of(Result.err("a"), Result.ok(1)), rejecting.addOk(1).build().toList());
+        IntResultBatch.Builder<String> rejectingInts = IntResultBatch.<String>builder().addErr("a");
+        assertThrows(NullPointerException.class, () -> rejectingInts.addErr(null));
+        assertEquals(List.of(Result.err("a"), Result.ok(1)), rejectingInts.addOk(1).build().boxed().toList());
+        LongResultBatch.Builder<String> rejectingLongs = LongResultBatch.<String>builder().addErr("a");
+        assertThrows(NullPointerException.class, () -> rejectingLongs.addErr(null));
+        assertEquals(List.of(Result.err("a"), Result.ok(1L)), rejectingLongs.addOk(1).build().boxed().toList());
+        DoubleResultBatch.Builder<String> rejectingDoubles = DoubleResultBatch.<String>builder().addErr("a");
+        assertThrows(NullPointerException.class, () -> rejectingDoubles.addErr(null));
+        assertEquals(List.of(Result.err("a"), Result.ok(1.0)), rejectingDoubles.addOk(1).build().boxed().toList());
+
+        IntResultBatch<String> ints = batch.mapToInt(v -> v);
+        assertEquals(results, ints.boxed().toList());
+        assertEquals(IntStream.range(0, 200).filter(i -> i % 3 != 0).asLongStream().sum(), ints.sum());
+        assertEquals(5, ints.getAsInt(5));
+        assertEquals(IntResult.err("e6"), ints.get(6));
+        IntResultBatch<Integer> filtered = ints.filter(v -> v < 100, v -> "big").map(v -> -v).mapError(String::length);
+        assertEquals(
+                results.stream().map(r -> IntResult.from(r).filter(v -> v < 100, v -> "big").map(v -> -v).mapError(String::length)).toList(),
+                IntStream.range(0, 200).mapToObj(filtered::get).toList()
+        );
+        assertEquals(batch.count(v -> v > 50), ints.count(v -> v > 50));
+        assertEquals(batch.values(), ints.mapToObj(v -> v).values());
+        assertEquals(ints.values().boxed().toList(), batch.values());
+        IntResultBatch<String> small = IntResultBatch.from(List.of(IntResult.ok(1), IntResult.err("x")));
+        assertEquals(List.of(IntResult.ok(1), IntResult.err("x")), List.of(small.get(0), small.get(1)));
+
+        LongResultBatch<String> longs = batch.mapToLong(v -> v * 10L);
+        assertEquals(ints.sum() * 10, longs.sum());
+        assertEquals(LongResult.err("e0"), longs.get(0));
+        assertEquals(10L, longs.getAsLong(1));
+        assertEquals(200, longs.filter(v -> false, v -> "none").errCount());
+
+        DoubleResultBatch<String> doubles = batch.mapToDouble(v -> v / 2.0);
+        assertEquals(ints.sum() / 2.0, doubles.sum());
+        assertEquals(0.5, doubles.getAsDouble(1));
+        assertEquals(DoubleResult.err("e3"), doubles.get(3));
+        assertEquals(200, doubles.filter(v -> false, v -> "none").errCount());
+        assertThrows(UnwrapException.class, () -> doubles.getAsDouble(0));
+        assertThrows(UnwrapException.class, () -> doubles.getError(1));
+
+        // An Ok can't hold null, whichever batch it's mapped in
+        assertThrows(NullPointerException.class, () -> batch.map(v -> null));
+        assertThrows(NullPointerException.class, () -> ints.mapToObj(v -> null));
+        assertThrows(NullPointerException.class, () -> longs.mapToObj(v -> null));
+        assertThrows(NullPointerException.class, () -> doubles.mapToObj(v -> null));
+    }
+
+    @Test
+    void offHeapResultBatchTest() throws Exception {
+        // Chunks of 2^7 rows, so a few hundred results span several buffers
+        OffHeapResultBatch direct = OffHeapResultBatch.allocate(300, 7);
+        for (int i = 0; i < 300; i++) {
+            if (i % 7 == 0) {
+                direct.appendErr(-i);
+            } else {
+                direct.appendOk((long) i);
+            }
+        }
+        assertEquals(300, direct.size());
+        assertEquals(300 - 43, direct.okCount());
+        assertEquals(43, direct.errCount());
+        assertEquals(IntStream.range(0, 300).filter(i -> i % 7 != 0).asLongStream().sum(), direct.sumAsLong());
+        assertEquals(LongResult.ok(299), direct.get(299));
+        assertEquals(LongResult.err(-140L), direct.get(140));
+        assertEquals(-7, direct.getErrorCode(7));
+        assertThrows(UnwrapException.class, () -> direct.getAsLong(0));
+        assertThrows(UnwrapException.class, () -> direct.getErrorCode(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> direct.isOk(300));
+        assertThrows(IllegalStateException.class, () -> direct.appendOk(1L));
+        direct.force();
+        direct.close();
+        direct.close();
+        assertEquals(300, direct.size());
+        assertThrows(IllegalStateException.class, () -> direct.isOk(0));
+        assertThrows(IllegalStateException.class, direct::okCount);
+        assertThrows(IllegalStateException.class, () -> direct.forEachOk(v -> {}));
+        assertThrows(IllegalStateException.class, () -> direct.appendErr(1));
+
+        Path file = Files.createTempFile("results", ".bin");
+        try {
+            double sum;
+            try (OffHeapResultBatch mapped = OffHeapResultBatch.create(file, 1000, 7)) {
+                for (int i = 0; i < 200; i++) {
+                    if (i % 2 == 0) {
+                        mapped.appendOk(i / 4.0);
+                    } else {
+                        mapped.appendErr(i);
+                    }
+                }
+                assertEquals(100, mapped.okCount());
+                sum = mapped.sumAsDouble();
+            }
+
+            // Closing wrote the batch through to the file
+            try (OffHeapResultBatch reopened = OffHeapResultBatch.open(file)) {
+                assertEquals(200, reopened.size());
+                assertEquals(1000, reopened.capacity());
+                assertEquals(100, reopened.okCount());
+                assertEquals(sum, reopened.sumAsDouble());
+                assertEquals(49.5, reopened.getAsDouble(198));
+                assertEquals(DoubleResult.ok(49.5), reopened.getDouble(198));
+                assertEquals(DoubleResult.err(199L), reopened.getDouble(199));
+                assertEquals(LongResult.ok(Double.doubleToRawLongBits(49.5)), reopened.get(198));
+                assertEquals(199, reopened.getErrorCode(199));
+                assertThrows(IllegalStateException.class, () -> reopened.appendOk(1.0));
+            }
+
+            Files.write(file, new byte[64]);
+            assertThrows(IOException.class, () -> OffHeapResultBatch.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(0, OffHeapResultBatch.allocate(0).okCount());
+        assertThrows(IllegalArgumentException.class, () -> OffHeapResultBatch.allocate(-1));
+    }
+
+    @Test
+    void validateTest() {
+        Result<Integer, String> one = Result.ok(1);
+        Result<Integer, String> bad = Result.err("bad");
+        Result<Integer, String> worse = Result.err("worse");
+
+        assertEquals(Result.ok(List.of(1, 1)), Result.validate(List.of(one, one)));
+        assertEquals(Result.err(List.of("bad", "worse")), Result.validate(List.of(one, bad, one, worse)));
+        assertEquals(Result.ok(List.of()), Result.validate(List.<Result<Integer, String>>of()));
+
+        assertEquals(Result.ok(2), Validated.zip2(one, one, Integer::sum));
+        assertEquals(Result.err(List.of("bad")), Validated.zip2(one, bad, Integer::sum));
+        assertEquals(
+                Result.ok("1 a true"),
+                Validated.zip3(one, Result.<String, String>ok("a"), Result.<Boolean, String>ok(true), (i, s, b) -> i + " " + s + " " + b)
+        );
+        assertEquals(Result.err(List.of("bad", "worse")), Validated.zip3(bad, one, worse, (a, b, c) -> a + b + c));
+        assertEquals(Result.ok(4), Validated.zip4(one, one, one, one, (a, b, c, d) -> a + b + c + d));
+        assertEquals(Result.err(List.of("worse")), Validated.zip4(one, one, one, worse, (a, b, c, d) -> a + b + c + d));
+        assertEquals(Result.ok(5), Validated.zip5(one, one, one, one, one, (a, b, c, d, e) -> a + b + c + d + e));
+        assertEquals(Result.err(List.of("bad")), Validated.zip5(bad, one, one, one, one, (a, b, c, d, e) -> a + b + c + d + e));
+        assertEquals(Result.ok(6), Validated.zip6(one, one, one, one, one, one, (a, b, c, d, e, f) -> a + b + c + d + e + f));
+        assertEquals(
+                Result.err(List.of("bad", "bad")),
+                Validated.zip6(one, bad, one, one, bad, one, (a, b, c, d, e, f) -> a + b + c + d + e + f)
+        );
+        assertEquals(
+                Result.ok(7),
+                Validated.zip7(one, one, one, one, one, one, one, (a, b, c, d, e, f, g) -> a + b + c + d + e + f + g)
+        );
+        assertEquals(
+                Result.err(List.of("worse", "bad")),
+                Validated.zip7(one, one, one, one, one, worse, bad, (a, b, c, d, e, f, g) -> a + b + c + d + e + f + g)
+        );
+        assertEquals(
+                Result.ok(8),
+                Validated.zip8(one, one, one, one, one, one, one, one, (a, b, c, d, e, f, g, h) -> a + b + c + d + e + f + g + h)
+        );
+        assertEquals(
+                Result.err(List.of("bad", "bad", "bad", "bad", "bad", "bad", "bad", "worse")),
+                Validated.zip8(bad, bad, bad, bad, bad, bad, bad, worse, (a, b, c, d, e, f, g, h) -> a + b + c + d + e + f + g + h)
+        );
+    }
+
+    @Test
+    void resultFlowTest() {
+        List<Result<Integer, String>> items = List.of(Result.ok(1), Result.err("bad"), Result.ok(3));
+
+        ListPublisher<Result<Integer, String>> publisher = new ListPublisher<>(items);
+        Flow.Processor<Result<Integer, String>, Result<Integer, String>> doubled = ResultFlow.mapResult(i -> i * 2);
+        Recorder<Result<Integer, String>> recorder = new Recorder<>();
+        doubled.subscribe(recorder);
+        publisher.subscribe(doubled);
+        assertEquals(0, publisher.requested);
+        recorder.subscription.request(2);
+        assertEquals(2, publisher.requested);
+        assertEquals(List.of(Result.ok(2), Result.err("bad")), recorder.items);
+        assertFalse(recorder.completed);
+        recorder.subscription.request(5);
+        assertEquals(List.of(Result.ok(2), Result.err("bad"), Result.ok(6)), recorder.items);
+        assertTrue(recorder.completed);
+
+        Recorder<Result<Integer, String>> flatMapped = run(
+                items,
+                ResultFlow.<Integer, Integer, String>flatMapResult(i -> i > 1 ? Result.ok(i) : Result.err("small"))
+        );
+        assertEquals(List.of(Result.err("small"), Result.err("bad"), Result.ok(3)), flatMapped.items);
+        assertEquals(
+                List.of(Result.ok(1), Result.ok(3), Result.ok(3)),
+                run(items, ResultFlow.<Integer, String>recoverErrors(String::length)).items
+        );
+        assertEquals(
+                List.of(Result.ok(1), Result.err("bad"), Result.ok(3)),
+                run(items, ResultFlow.<Integer, String>recoverErrors(String::isEmpty, String::length)).items
+        );
+        assertEquals(
+                List.of(Result.ok(1), Result.err(3), Result.ok(3)),
+                run(items, ResultFlow.<Integer, String, Integer>mapErrors(String::length)).items
+        );
+
+        // A failing mapper cancels upstream and errors downstream
+        ListPublisher<Result<Integer, String>> failing = new ListPublisher<>(items);
+        Recorder<Result<Integer, String>> failed = run(failing, ResultFlow.mapResult(i -> divide(i, i - 1)));
+        assertInstanceOf(ArithmeticException.class, failed.error);
+        assertTrue(failing.cancelled);
+        assertTrue(failed.items.isEmpty());
+
+        // Only one subscriber is accepted, and a completion before subscribing is held
+        Flow.Processor<Result<Integer, String>, Result<Integer, String>> single = ResultFlow.mapResult(i -> i);
+        new ListPublisher<Result<Integer, String>>(List.of()).subscribe(single);
+        Recorder<Result<Integer, String>> first = new Recorder<>();
+        single.subscribe(first);
+        first.subscription.request(1);
+        assertTrue(first.completed);
+        Recorder<Result<Integer, String>> second = new Recorder<>();
+        single.subscribe(second);
+        assertInstanceOf(IllegalStateException.class, second.error);
+
+        // Non-positive requests are errors
+        Recorder<Result<Integer, String>> invalid = new Recorder<>();
+        Flow.Processor<Result<Integer, String>, Result<Integer, String>> invalidProcessor = ResultFlow.mapResult(i -> i);
+        ListPublisher<Result<Integer, String>> invalidPublisher = new ListPublisher<>(items);
+        invalidProcessor.subscribe(invalid);
+        invalidPublisher.subscribe(invalidProcessor);
+        invalid.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, invalid.error);
+        assertTrue(invalidPublisher.cancelled);
+
+        // An invalid request made while an element is delivered is reported after it, not during it
+        Flow.Processor<Result<Integer, String>, Result<Integer, String>> reentrant = ResultFlow.mapResult(i -> i);
+        List<Result<Integer, String>> received = new ArrayList<>();
+        boolean[] delivering = {false};
+        boolean[] overlapped = {false};
+        Throwable[] reentrantError = {null};
+        reentrant.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(5);
+            }
+
+            @Override
+            public void onNext(Result<Integer, String> item) {
+                delivering[0] = true;
+                received.add(item);
+                subscription.request(0);
+                delivering[0] = false;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                overlapped[0] = delivering[0];
+                reentrantError[0] = throwable;
+            }
+
+            @Override
+            public void onComplete() {}
+        });
+        ListPublisher<Result<Integer, String>> reentrantPublisher = new ListPublisher<>(items);
+        reentrantPublisher.subscribe(reentrant);
+        assertEquals(List.of(Result.ok(1)), received);
+        assertInstanceOf(IllegalArgumentException.class, reentrantError[0]);
+        assertFalse(overlapped[0]);
+        assertTrue(reentrantPublisher.cancelled);
+
+        // Elements from an upstream which hasn't seen the cancellation yet are dropped
+        Flow.Processor<Result<Integer, String>, Result<Integer, String>> cancelling = ResultFlow.mapResult(i -> i);
+        Recorder<Result<Integer, String>> cancelled = new Recorder<>();
+        cancelling.subscribe(cancelled);
+        cancelling.onSubscribe(ResultFlow.REJECTED);
+        cancelled.subscription.request(2);
+        cancelling.onNext(Result.ok(1));
+        cancelled.subscription.cancel();
+        cancelling.onNext(Result.ok(2));
+        assertEquals(List.of(Result.ok(1)), cancelled.items);
+    }
+
+    @Test
+    void splitOkErrTest() {
+        List<Result<Integer, String>> items = List.of(
+                Result.ok(1), Result.err("a"), Result.ok(2), Result.ok(3), Result.err("b")
+        );
+        ListPublisher<Result<Integer, String>> publisher = new ListPublisher<>(items);
+        Recorder<Integer> oks = new Recorder<>();
+        Recorder<String> errs = new Recorder<>();
+        publisher.subscribe(ResultFlow.splitOkErr(oks, errs));
+
+        // Nothing is requested until both subscribers can take the next result
+        oks.subscription.request(1);
+        oks.subscription.request(1);
+        assertEquals(0, publisher.requested);
+        errs.subscription.request(1);
+        assertEquals(2, publisher.requested);
+        assertEquals(List.of(1), oks.items);
+        assertEquals(List.of("a"), errs.items);
+        errs.subscription.request(2);
+        assertEquals(3, publisher.requested);
+        assertEquals(List.of(1, 2), oks.items);
+        assertFalse(oks.completed);
+        oks.subscription.request(5);
+        assertEquals(List.of(1, 2, 3), oks.items);
+        assertEquals(List.of("a", "b"), errs.items);
+        assertTrue(oks.completed);
+        assertTrue(errs.completed);
+
+        // A cancelled subscriber no longer limits the demand
+        ListPublisher<Result<Integer, String>> unlimited = new ListPublisher<>(items);
+        Recorder<Integer> okOnly = new Recorder<>();
+        Recorder<String> cancelled = new Recorder<>();
+        unlimited.subscribe(ResultFlow.splitOkErr(okOnly, cancelled));
+        cancelled.subscription.cancel();
+        okOnly.subscription.request(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, unlimited.requested);
+        assertEquals(List.of(1, 2, 3), okOnly.items);
+        assertTrue(cancelled.items.isEmpty());
+        assertFalse(cancelled.completed);
+        okOnly.subscription.cancel();
+        assertTrue(unlimited.cancelled);
+
+        Recorder<Integer> invalid = new Recorder<>();
+        new ListPublisher<>(items).subscribe(ResultFlow.splitOkErr(invalid, new Recorder<String>()));
+        invalid.subscription.request(-1);
+        assertInstanceOf(IllegalArgumentException.class, invalid.error);
+
+        // An invalid request made while a value is delivered is reported after it, and only once
+        List<Integer> received = new ArrayList<>();
+        boolean[] delivering = {false};
+        int[] errors = {0};
+        Recorder<String> errSide = new Recorder<>();
+        new ListPublisher<>(items).subscribe(ResultFlow.splitOkErr(new Flow.Subscriber<Integer>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(5);
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                delivering[0] = true;
+                received.add(item);
+                subscription.request(0);
+                delivering[0] = false;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                assertFalse(delivering[0]);
+                assertInstanceOf(IllegalArgumentException.class, throwable);
+                errors[0]++;
+            }
+
+            @Override
+            public void onComplete() {
+                fail("completed after an invalid request");
+            }
+        }, errSide));
+        errSide.subscription.request(5);
+        assertEquals(List.of(1), received);
+        assertEquals(1, errors[0]);
+        assertEquals(List.of("a", "b"), errSide.items);
+        assertTrue(errSide.completed);
+    }
+
+    static <A, B> Recorder<B> run(List<A> items, Flow.Processor<A, B> processor) {
+        return run(new ListPublisher<>(items), processor);
+    }
+
+    static <A, B> Recorder<B> run(ListPublisher<A> publisher, Flow.Processor<A, B> processor) {
+        Recorder<B> recorder = new Recorder<>();
+        publisher.subscribe(processor);
+        processor.subscribe(recorder);
+        recorder.subscription.request(Long.MAX_VALUE);
+        return recorder;
+    }
+
+    @Test
+    void resultAggregatorTest() {
+        ResultAggregator<String> stats = new ResultAggregator<>(10, 2, error -> error.substring(0, 1));
+        for (int i = 0; i < 1000; i++) {
+            stats.add(i % 4 == 0 ? Result.<Integer, String>err((i % 8 == 0 ? "a" : i < 500 ? "b" : "c") + i) : Result.ok(i));
+        }
+        assertEquals(750, stats.okCount());
+        assertEquals(250, stats.errCount());
+        assertEquals(1000, stats.count());
+        assertEquals(10, stats.sample().size());
+        // c replaced b when it started, inheriting b's 62 errors
+        assertEquals(Map.of("a", 125L, "c", 125L), stats.errorClasses());
+        assertEquals(62, stats.untrackedErrors());
+        assertEquals(List.of("a", "c"), List.copyOf(stats.errorClasses().keySet()));
+
+        // Round trip through a checkpoint
+        ByteBuffer checkpoint = ByteBuffer.allocate(stats.sizeOf(BinaryCodec.STRING));
+        stats.writeTo(checkpoint, BinaryCodec.STRING);
+        assertFalse(checkpoint.hasRemaining());
+        ResultAggregator<String> restored = ResultAggregator.readFrom(checkpoint.flip(), BinaryCodec.STRING, e -> e.substring(0, 1));
+        assertEquals(stats.okCount(), restored.okCount());
+        assertEquals(stats.errCount(), restored.errCount());
+        assertEquals(stats.untrackedErrors(), restored.untrackedErrors());
+        assertEquals(stats.errorClasses(), restored.errorClasses());
+        assertEquals(stats.sample(), restored.sample());
+        restored.addErr("a-more");
+        assertEquals(126L, restored.errorClasses().get("a"));
+        assertEquals(62, restored.untrackedErrors());
+
+        // A class name with an unpaired surrogate encodes to fewer bytes than STRING.sizeOf counts
+        ResultAggregator<String> surrogates = new ResultAggregator<>(1, 2, e -> e);
+        surrogates.addErr("\uD800");
+        surrogates.addErr("\uD800");
+        surrogates.addErr("b");
+        surrogates.addOk();
+        ByteBuffer surrogateCheckpoint = ByteBuffer.allocate(surrogates.sizeOf(BinaryCodec.STRING) + 16);
+        surrogates.writeTo(surrogateCheckpoint, BinaryCodec.STRING);
+        surrogateCheckpoint.putLong(42);
+        surrogateCheckpoint.flip();
+        ResultAggregator<String> restoredSurrogates = ResultAggregator.readFrom(surrogateCheckpoint, BinaryCodec.STRING, e -> e);
+        assertEquals(Map.of("?", 2L, "b", 1L), restoredSurrogates.errorClasses());
+        assertEquals(1, restoredSurrogates.okCount());
+        assertEquals(1, restoredSurrogates.sample().size());
+        assertEquals(42, surrogateCheckpoint.getLong());
+
+        // Merging keeps the classes with the largest combined counts, whichever order it's done in
+        List<ResultAggregator<String>> parts = new ArrayList<>();
+        for (String errors : List.of("xxxxxyyy", "zzzzyy")) {
+            ResultAggregator<String> part = new ResultAggregator<>(0, 2, e -> e);
+            errors.chars().forEach(c -> part.addErr(Character.toString(c)));
+            parts.add(part);
+        }
+        ResultAggregator<String> forward = new ResultAggregator<String>(0, 2, e -> e).merge(parts.get(0)).merge(parts.get(1));
+        ResultAggregator<String> backward = new ResultAggregator<String>(0, 2, e -> e).merge(parts.get(1)).merge(parts.get(0));
+        assertEquals(List.of(Map.entry("x", 7L), Map.entry("z", 7L)), List.copyOf(forward.errorClasses().entrySet()));
+        assertEquals(forward.errorClasses(), backward.errorClasses());
+        assertEquals(5, forward.untrackedErrors());
+        assertThrows(IllegalArgumentException.class, () -> ResultAggregator.readFrom(ByteBuffer.allocate(8), BinaryCodec.STRING));
+
+        // Every error has the same chance of being sampled, before and after merging
+        int[] firstHalf = new int[2];
+        for (int run = 0; run < 2000; run++) {
+            ResultAggregator<Integer> left = new ResultAggregator<>(5, 4);
+            ResultAggregator<Integer> right = new ResultAggregator<>(5, 4);
+            for (int i = 0; i < 100; i++) {
+                left.addErr(i);
+            }
+            for (int i = 100; i < 400; i++) {
+                right.addErr(i);
+            }
+            List<Integer> merged = left.merge(right).sample();
+            assertEquals(5, merged.size());
+            assertEquals(5, Set.copyOf(merged).size());
+            merged.forEach(i -> firstHalf[i < 100 ? 0 : 1]++);
+        }
+        // A quarter of the errors came from the left
+        assertEquals(0.25, firstHalf[0] / (double) (firstHalf[0] + firstHalf[1]), 0.03);
+
+        ResultAggregator<String> collected = IntStream.range(0, 10000).parallel()
+                .mapToObj(i -> i % 10 == 0 ? Result.<Integer, String>err("bad") : Result.<Integer, String>ok(i))
+                .collect(ResultCollectors.aggregating(3, 1));
+        assertEquals(9000, collected.okCount());
+        assertEquals(Map.of(String.class.getName(), 1000L), collected.errorClasses());
+        assertEquals(List.of("bad", "bad", "bad"), collected.sample());
+        assertTrue(new ResultAggregator<String>(0, 0).addErr("e").sample().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new ResultAggregator<String>(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ResultAggregator<String>(0, -1));
+    }
+
+    @Test
+    void errorRouterTest() {
+        ErrorRouter<String, Throwable> router = ErrorRouter.<String, Throwable>builder()
+                .recover(NoSuchElementException.class, e -> "not found")
+                .when(e -> "teapot".equals(e.getMessage()), e -> Result.ok("short and stout"))
+                .on(IllegalArgumentException.class, e -> Result.err(new IllegalStateException(e.getMessage())))
+                .recover(RuntimeException.class, e -> "runtime")
+                .when(e -> true, e -> Result.ok("anything"))
+                .build();
+
+        assertEquals(Result.ok("not found"), router.route(Result.err(new NoSuchElementException())));
+        // The first route declared wins, whether it is a class or a predicate
+        assertEquals(Result.ok("not found"), router.route(Result.err(new NoSuchElementException("teapot"))));
+        assertEquals(Result.ok("short and stout"), router.route(Result.err(new IllegalArgumentException("teapot"))));
+        // Subclasses are routed by the first class route they are an instance of
+        Result<String, Throwable> invalid = router.route(Result.err(new NumberFormatException("NaN")));
+        assertInstanceOf(IllegalStateException.class, invalid.getError());
+        assertEquals("NaN", invalid.getError().getMessage());
+        assertEquals(Result.ok("runtime"), router.recover(new ArithmeticException()));
+        assertEquals(Result.ok("anything"), router.recover(new Exception()));
+        // Cached routes give the same answers
+        assertEquals(Result.ok("runtime"), router.recover(new ArithmeticException()));
+        assertEquals(Result.ok("short and stout"), router.recover(new ArithmeticException("teapot")));
+
+        Result<String, Throwable> ok = Result.ok("fine");
+        assertSame(ok, router.route(ok));
+
+        ErrorRouter<String, Throwable> empty = ErrorRouter.<String, Throwable>builder().build();
+        Result<String, Throwable> unrouted = Result.err(new Exception());
+        assertSame(unrouted, empty.route(unrouted));
+        Exception error = new Exception();
+        assertEquals(Result.err(error), empty.recover(error));
+        assertThrows(NullPointerException.class, () -> ErrorRouter.<String, Throwable>builder().on(null, e -> Result.ok("")));
+        // A class route after a route for its superclass can never match
+        ErrorRouter.Builder<String, Throwable> shadowed = ErrorRouter.<String, Throwable>builder()
+                .recover(RuntimeException.class, e -> "runtime")
+                .when(e -> true, e -> Result.ok("anything"))
+                .recover(NumberFormatException.class, e -> "unreachable");
+        assertThrows(IllegalArgumentException.class, shadowed::build);
+
+        // Agrees with a chain of flatMapMatchingError calls
+        ErrorRouter<Integer, Integer> codes = ErrorRouter.<Integer, Integer>builder()
+                .when(i -> i % 2 == 0, i -> Result.ok(i / 2))
+                .when(i -> i % 3 == 0, i -> Result.err(i / 3))
+                .build();
+        fuzzInt(i -> assertEquals(
+                Result.<Integer, Integer>err(i)
+                        .flatMapMatchingError(e -> e % 2 == 0, e -> Result.ok(e / 2))
+                        .flatMapMatchingError(e -> e % 3 == 0, e -> Result.err(e / 3)),
+                codes.recover(i)
+        ));
+    }
+
+    @Test
+    void errTypeMatchTest() {
+        TimeoutException timeout = new TimeoutException("slow");
+        List<MatchArm<String, Throwable, String>> arms = List.of(
+                MatchArm.errType(NumberFormatException.class, e -> "number " + e.getMessage()),
+                MatchArm.err(e -> "first".equals(e.getMessage()), e -> "predicate"),
+                MatchArm.errType(IllegalArgumentException.class, e -> "argument"),
+                MatchArm.error(timeout, e -> "timeout"),
+                MatchArm.errType(RuntimeException.class, e -> "runtime"),
+                MatchArm.okay("admin", s -> "confidential")
+        );
+        MatchTable<String, Throwable, String> table = MatchTable.of(arms);
+        List<Result<String, Throwable>> results = List.of(
+                Result.err(new NumberFormatException("NaN")),
+                Result.err(new NumberFormatException("first")),
+                Result.err(new IllegalArgumentException("first")),
+                Result.err(new IllegalArgumentException()),
+                Result.err(new ArithmeticException()),
+                Result.err(timeout),
+                Result.err(new Exception()),
+                Result.err(new Error()),
+                Result.ok("admin"),
+                Result.ok("user")
+        );
+        List<String> expected = List.of(
+                "number NaN", "number first", "predicate", "argument", "runtime", "timeout", "default", "default", "confidential", "default"
+        );
+        for (int i = 0; i < results.size(); i++) {
+            // Twice, so the second lookup comes from the cache
+            assertEquals(expected.get(i), table.match(results.get(i), r -> "default"));
+            assertEquals(expected.get(i), table.match(results.get(i), s -> "default", e -> "default"));
+            assertEquals(expected.get(i), results.get(i).match(r -> "default", arms));
+        }
+
+        // Like catch clauses, a class arm after an arm for its superclass is rejected
+        assertThrows(IllegalArgumentException.class, () -> MatchTable.<String, Throwable, String>of(
+                MatchArm.errType(RuntimeException.class, e -> "runtime"),
+                MatchArm.errType(IllegalStateException.class, e -> "unreachable")
+        ));
+        assertThrows(IllegalArgumentException.class, () -> MatchTable.<String, Throwable, String>of(
+                MatchArm.errType(IOException.class, e -> "io"),
+                MatchArm.errType(IOException.class, e -> "unreachable")
+        ));
+        assertThrows(NullPointerException.class, () -> MatchArm.errType(null, e -> ""));
+    }
+
+    @Test
+    void contextTest() {
+        Result<Integer, String> plain = Result.err("bad");
+        Result<Integer, String> traced = plain.withContext("trace", "abc").withContext("stage", "parse");
+        assertTrue(plain.context().isEmpty());
+        assertEquals(Map.of("trace", "abc", "stage", "parse"), traced.context().toMap());
+        assertEquals("abc", traced.context().get("trace"));
+        assertNull(traced.context().get("missing"));
+        // The context is metadata, not part of equality
+        assertEquals(plain, traced);
+        assertEquals(traced, plain);
+        assertEquals(plain.hashCode(), traced.hashCode());
+        assertNotEquals(Result.err("other"), traced);
+        assertNotEquals(Result.ok(1), traced);
+        Result<Integer, String> ok = Result.ok(1);
+        assertSame(ok, ok.withContext("trace", "abc"));
+        assertTrue(ok.context().isEmpty());
+
+        // Carried forward without being copied
+        ResultContext context = traced.context();
+        assertSame(context, traced.map(i -> i + 1).context());
+        assertSame(context, traced.flatMap(i -> Result.ok(i + 1)).context());
+        assertSame(context, traced.mapError(String::length).context());
+        assertSame(context, traced.filter(i -> false, i -> "filtered").context());
+        assertSame(context, traced.or(() -> Result.err("fallback")).context());
+        assertSame(context, traced.flatMapError(e -> Result.err(e + "!")).context());
+        assertSame(context, traced.flatMapMatchingError(e -> true, e -> Result.err(e + "!")).context());
+        assertSame(traced, traced.flatMapMatchingError(e -> false, e -> Result.err(e + "!")));
+        assertSame(traced, traced.transformMatchingError(e -> false, String::length));
+        assertEquals(Result.err(3), traced.mapError(String::length));
+
+        // An Err with its own context keeps its entries over the carried ones
+        Result<Integer, String> fallback = traced.or(() -> Result.<Integer, String>err("retry").withContext("stage", "retry"));
+        assertEquals(Map.of("trace", "abc", "stage", "retry"), fallback.context().toMap());
+        assertEquals(List.of("trace", "stage"), List.copyOf(fallback.context().toMap().keySet()));
+
+        // Recovering drops the context
+        assertEquals(Result.ok(1), traced.or(() -> Result.ok(1)));
+        assertTrue(traced.or(() -> Result.ok(1)).context().isEmpty());
+        assertEquals(Result.ok(3), traced.transformMatchingError(e -> true, String::length));
+        assertEquals(Result.ok(4), traced.flatMapError(e -> Result.ok(4)));
+
+        // Behaves as an Err otherwise
+        assertFalse(traced.isOk());
+        assertTrue(traced.hasError());
+        assertEquals("bad", traced.getError());
+        assertThrows(UnwrapException.class, traced::get);
+        assertEquals(Optional.empty(), traced.toOptional());
+        assertEquals(7, traced.orElse(7));
+        assertEquals(3, traced.orElseGet(String::length));
+        traced.ifOk(i -> fail());
+        int[] ran = new int[1];
+        traced.ifOkOrElse(i -> fail(), () -> ran[0]++);
+        assertEquals(1, ran[0]);
+        assertThrows(IllegalStateException.class, () -> traced.orElseThrow(() -> new IllegalStateException()));
+        assertThrows(IllegalStateException.class, () -> traced.orElseThrow(e -> new IllegalStateException(e)));
+        assertEquals("bad", traced.match(r -> r.getError(), List.of(MatchArm.err(e -> e.isEmpty(), e -> "empty"))));
+        assertEquals("3", traced.match(v -> "ok", e -> "" + e.length(), List.of(MatchArm.err(e -> e.isEmpty(), e -> "empty"))));
+        assertEquals("arm", traced.match(r -> "default", List.of(MatchArm.error("bad", e -> "arm"))));
+        assertEquals("arm", traced.match(v -> "ok", e -> "err", List.of(MatchArm.error("bad", e -> "arm"))));
+
+        assertSame(plain.getClass(), Result.err("x", ResultContext.EMPTY).getClass());
+        assertEquals(Map.of("trace", "abc"), Result.err("x", ResultContext.of("trace", "abc")).context().toMap());
+        assertEquals(ResultContext.of("a", 1).with("b", 2), ResultContext.of("b", 2).with("a", 1));
+        assertEquals(ResultContext.of("a", 1).hashCode(), ResultContext.EMPTY.with("a", 1).hashCode());
+        assertEquals("{a=2}", ResultContext.of("a", 1).with("a", 2).toString());
+        assertSame(context, context.withAll(ResultContext.EMPTY));
+        assertSame(context, ResultContext.EMPTY.withAll(context));
+        assertThrows(NullPointerException.class, () -> ResultContext.of(null, 1));
+        assertThrows(NullPointerException.class, () -> ResultContext.of("a", null));
+
+        // A pipeline's flatMap carries the context like the eager flatMap
+        ResultPipeline<String, Integer, String> pipeline = Result.<String, String>lazy()
+                .flatMap(v -> Result.<Integer, String>err("failed " + v).withContext("stage", "parse"))
+                .mapError(e -> e + "!");
+        Result<Integer, String> lazy = pipeline.apply("x");
+        assertEquals(Result.err("failed x!"), lazy);
+        assertEquals(Map.of("stage", "parse"), lazy.context().toMap());
+        assertTrue(Result.<String, String>lazy().flatMap(v -> Result.<Integer, String>err(v)).apply("x").context().isEmpty());
+
+        // A router carries the context like the chain of flatMapMatchingError calls it replaces
+        ErrorRouter<Integer, String> router = ErrorRouter.<Integer, String>builder()
+                .when(e -> e.startsWith("b"), e -> Result.<Integer, String>err("routed").withContext("stage", "route"))
+                .build();
+        Result<Integer, String> chained = traced.flatMapMatchingError(
+                e -> e.startsWith("b"),
+                e -> Result.<Integer, String>err("routed").withContext("stage", "route")
+        );
+        Result<Integer, String> routed = router.route(traced);
+        assertEquals(chained, routed);
+        assertEquals(chained.context(), routed.context());
+        assertEquals(Map.of("trace", "abc", "stage", "route"), routed.context().toMap());
+        Result<Integer, String> unrouted = traced.mapError(e -> "a" + e);
+        assertSame(unrouted, router.route(unrouted));
+
+        // A null error from a mapper doesn't break equality
+        Result<Integer, String> nullError = traced.mapError(e -> null);
+        assertEquals(nullError, nullError);
+        assertNotEquals(nullError, plain);
+        assertEquals(0, nullError.hashCode());
+    }
+
     @Test
     void coverageTests() {
         Result<Integer, Object> res = Result.ok(-1);
@@ -409,5 +2143,80 @@ public class Tests {
     String returnsString(String s) {
         return s;
     }
-}
 
+    /**
+     * Publishes the items on the requesting thread as they are requested, recording the total demand.
+     */
+    static final class ListPublisher<T> implements Flow.Publisher<T> {
+        private final List<T> items;
+        long requested;
+        boolean cancelled;
+
+        ListPublisher(List<T> items) {
+            this.items = items;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int next;
+                private long demand;
+                private boolean emitting;
+
+                @Override
+                public void request(long n) {
+                    requested = ResultFlow.addDemand(requested, n);
+                    demand = ResultFlow.addDemand(demand, n);
+                    if (emitting) {
+                        return;
+                    }
+                    emitting = true;
+                    while (demand > 0 && next < items.size() && !cancelled) {
+                        demand--;
+                        subscriber.onNext(items.get(next++));
+                    }
+                    if (next == items.size() && !cancelled) {
+                        next++;
+                        subscriber.onComplete();
+                    }
+                    emitting = false;
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    /**
+     * Records everything it receives, requesting nothing by itself.
+     */
+    static final class Recorder<T> implements Flow.Subscriber<T> {
+        final List<T> items = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}